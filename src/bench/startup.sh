@@ -0,0 +1,53 @@
+#!/bin/sh
+#set -x
+# Startup benchmark for the grib2json launch script. Reports the mean wall clock time of RUNS conversions of a
+# small input file, with and without the class data sharing archive created by grib2json-cds.
+#
+# usage: startup.sh INSTALL_DIR SAMPLE_FILE [RUNS] [options]
+if [ -z "$2" ]; then
+    echo "usage: startup.sh INSTALL_DIR SAMPLE_FILE [RUNS] [options]" 1>&2
+    exit 1
+fi
+INSTALL_DIR=$1
+SAMPLE=$2
+RUNS=${3:-10}
+if [ $# -ge 3 ]; then shift 3; else shift $#; fi
+JSA=$INSTALL_DIR/lib/grib2json.jsa
+
+now_ms() {
+    echo $(($(date +%s%N) / 1000000))
+}
+
+measure() {
+    label=$1
+    shift
+    "$@" > /dev/null  # warm up the file system cache
+    start=$(now_ms)
+    i=0
+    while [ $i -lt "$RUNS" ]; do
+        "$@" > /dev/null
+        i=$((i + 1))
+    done
+    end=$(now_ms)
+    echo "$label: $(((end - start) / RUNS)) ms/run over $RUNS runs"
+}
+
+measure "help" "$INSTALL_DIR/bin/grib2json" --help
+
+# Move any existing archive aside while measuring without one. However the script exits, the archive created
+# for the measurement is removed and the original restored.
+if [ -f "$JSA" ]; then
+    mv "$JSA" "$JSA.bench"
+fi
+restore() {
+    rm -f "$JSA"
+    if [ -f "$JSA.bench" ]; then
+        mv "$JSA.bench" "$JSA"
+    fi
+}
+trap restore EXIT
+trap 'exit 130' INT TERM HUP
+measure "convert, no cds" "$INSTALL_DIR/bin/grib2json" "$@" "$SAMPLE"
+
+"$INSTALL_DIR/bin/grib2json-cds" "$SAMPLE" "$@"
+measure "convert, cds" "$INSTALL_DIR/bin/grib2json" "$@" "$SAMPLE"
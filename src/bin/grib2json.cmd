@@ -1,4 +1,6 @@
 @echo off
 set LIB_DIR="%~dp0..\lib"
 for /f "delims=X" %%i in ('dir /b %LIB_DIR%\grib2json-*.jar') do set LAUNCH_JAR=%LIB_DIR%\%%i
-"%JAVA_HOME%\bin\java.exe" -Xmx512M -jar %LAUNCH_JAR% %*
+set CDS_OPTS=
+if exist %LIB_DIR%\grib2json.jsa set CDS_OPTS=-XX:SharedArchiveFile=%LIB_DIR%\grib2json.jsa -Xshare:auto -Xlog:disable -Xlog:all=warning:stderr
+"%JAVA_HOME%\bin\java.exe" -Xmx512M %CDS_OPTS% -jar %LAUNCH_JAR% %*
@@ -16,10 +16,16 @@ abstract class AbstractRecordWriter {
 
     protected final JsonGenerator jg;
     protected final Options options;
+    /**
+     * True if the command line options have name printing enabled. Name lookups consult the decoder's code and
+     * parameter tables, so writers look up names only when this is set: write(key, code, names ? lookup : null).
+     */
+    protected final boolean names;
 
     protected AbstractRecordWriter(JsonGenerator jg, Options options) {
         this.jg = Objects.requireNonNull(jg);
         this.options = Objects.requireNonNull(options);
+        this.names = options.getPrintNames();
     }
 
     /**
@@ -61,6 +67,24 @@ abstract class AbstractRecordWriter {
         }
     }
 
+    /**
+     * Write the record's data as a Json array: "data": [ ... ], preceded by the mask of missing points if the
+     * command line options specify masking.
+     *
+     * The encoder separates values with the text the generator writes at the depth of a record's data array: within
+     * the record object, within the outermost array. Every record writer writes its records at that depth, so this
+     * method must not be used to write arrays nested any deeper.
+     */
+    protected void writeData(float[] data) {
+        if (options.isMaskMissing()) {
+            MissingMask.write(jg, data, FloatArrayEncoder.of(options), !options.isNdjson());
+            return;
+        }
+        jg.writeStartArray("data");
+        FloatArrayEncoder.of(options).write(jg, data, false);
+        jg.writeEnd();
+    }
+
     /**
      * Write a "key":double Json pair.
      */
@@ -81,7 +105,7 @@ abstract class AbstractRecordWriter {
      */
     protected void write(String key, int code, String name) {
         write(key, code);
-        if (options.getPrintNames()) {
+        if (names) {
             write(key + "Name", name);
         }
     }
@@ -0,0 +1,39 @@
+package net.nullschool.grib2json;
+
+import java.io.IOException;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * A record selected from an input file by the command line options, ready to be written to the Json generator the
+ * record was selected for. Each output mode decides how much of the record to decode and write.
+ */
+interface DecodedRecord {
+
+    /**
+     * Write the record's header as a Json object: "header": { ... }, adding the specified statistics if not null.
+     */
+    void writeHeader(RecordStats stats);
+
+    /**
+     * Decode the record's data as a grid of {@link #getNx} by {@link #getNy} points, row by row, or return null if
+     * the record has no data.
+     */
+    float[] readData() throws IOException;
+
+    /**
+     * Returns the number of points in each row of the record's data.
+     */
+    int getNx();
+
+    /**
+     * Returns the number of rows of the record's data.
+     */
+    int getNy();
+
+    /**
+     * Write the record as a Json object: { "header": { ... }, "data": [ ... ] }, as the command line options specify.
+     */
+    void writeRecord() throws IOException;
+}
@@ -0,0 +1,215 @@
+package net.nullschool.grib2json;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ucar.grib.grib2.*;
+import ucar.unidata.io.RandomAccessFile;
+
+import javax.json.stream.JsonGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * Aggregates the members of an ensemble into per-point statistics. Selected records from all input files are
+ * grouped by (discipline, category, parameter, surface type, surface value, forecast time), so members may be
+ * separate files, records within a single file, or both. The records of all files are first indexed, which reads
+ * only their headers. Then each group is processed in turn: each member's data is folded into the group's
+ * streaming accumulators and discarded, the group's aggregates are written, and the accumulators are dropped. So
+ * memory use is that of a single group's grids, independent of both the number of members and the number of
+ * groups. For each group, one record each is written for the mean, min, max, stddev, and any requested
+ * percentiles.
+ */
+final class EnsembleAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(EnsembleAggregator.class);
+
+    private final List<File> files;
+    private final List<Options> optionGroups;
+
+    EnsembleAggregator(List<File> files, List<Options> optionGroups) {
+        for (File file : files) {
+            if (!file.exists()) {
+                throw new IllegalArgumentException("Cannot find input file: " + file);
+            }
+        }
+        this.files = files;
+        this.optionGroups = optionGroups;
+    }
+
+    /**
+     * A record of one member of a group, located by its file. Records hold only header metadata and offsets, so
+     * the index of all records is cheap to keep for the whole run.
+     */
+    private static final class Member {
+        final File file;
+        final Grib2Record record;
+
+        Member(File file, Grib2Record record) {
+            this.file = file;
+            this.record = record;
+        }
+    }
+
+    /**
+     * Returns the key of the group of records having the specified product. Records that differ only in fields not
+     * listed here, such as ensemble member number or reference time, are members of the same group.
+     */
+    static String groupKey(
+        int discipline,
+        int category,
+        int parameterNumber,
+        int surfaceType,
+        double surfaceValue,
+        int forecastTime) {
+
+        return
+            discipline + ":" +
+            category + ":" +
+            parameterNumber + ":" +
+            surfaceType + ":" +
+            surfaceValue + ":" +
+            forecastTime;
+    }
+
+    private static String groupKey(Grib2Record record) {
+        Grib2Pds pds = record.getPDS().getPdsVars();
+        return groupKey(
+            record.getIs().getDiscipline(),
+            pds.getParameterCategory(),
+            pds.getParameterNumber(),
+            pds.getLevelType1(),
+            pds.getLevelValue1(),
+            pds.getForecastTime());
+    }
+
+    /**
+     * Parse a list of percentiles of the form "10,50,90".
+     */
+    private static String[] parsePercentiles(String spec) {
+        return spec == null ? new String[0] : spec.split(",");
+    }
+
+    private static double[] toQuantiles(String[] percentiles) {
+        double[] quantiles = new double[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            try {
+                quantiles[i] = Double.parseDouble(percentiles[i].trim()) / 100;
+            }
+            catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid percentile: " + percentiles[i]);
+            }
+        }
+        return quantiles;
+    }
+
+    /**
+     * Index the selected records of all input files by group, in order of first appearance. Throws
+     * IllegalArgumentException if an input file is not GRIB2.
+     */
+    private Map<String, List<Member>> index(Options options) throws IOException {
+        Map<String, List<Member>> groups = new LinkedHashMap<>();
+        for (File file : files) {
+            if (FileFormat.detect(file) != FileFormat.GRIB2) {
+                throw new IllegalArgumentException("Ensemble aggregation requires GRIB2 files: " + file);
+            }
+            RandomAccessFile raf = new RandomAccessFile(file.getPath(), "r");
+            try {
+                raf.order(RandomAccessFile.BIG_ENDIAN);
+                Grib2Input input = new Grib2Input(raf);
+                if (!input.scan(false, false)) {
+                    throw new IllegalArgumentException("Ensemble aggregation requires GRIB2 files: " + file);
+                }
+                for (Grib2Record record : input.getRecords()) {
+                    if (!GribRecordWriter.isSelected(options, record)) {
+                        continue;
+                    }
+                    String key = groupKey(record);
+                    List<Member> members = groups.get(key);
+                    if (members == null) {
+                        groups.put(key, members = new ArrayList<>());
+                    }
+                    members.add(new Member(file, record));
+                }
+            }
+            finally {
+                raf.close();
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Fold the data of each member of a group into a new grid. Returns null if no member has data.
+     */
+    private static EnsembleGrid aggregate(List<Member> members, JsonGenerator jg, Options options, double[] quantiles)
+        throws IOException {
+
+        EnsembleGrid grid = null;
+        for (Member member : members) {
+            RandomAccessFile raf = new RandomAccessFile(member.file.getPath(), "r");
+            try {
+                raf.order(RandomAccessFile.BIG_ENDIAN);
+                GribRecordWriter rw = new GribRecordWriter(jg, member.record, options);
+                float[] data = rw.readData(new Grib2Data(raf));
+                if (data == null) {
+                    continue;
+                }
+                if (grid == null) {
+                    grid = new EnsembleGrid(data.length, quantiles);
+                }
+                grid.add(data);
+            }
+            finally {
+                raf.close();
+            }
+        }
+        return grid;
+    }
+
+    private void write(Options options) throws IOException {
+        String[] percentiles = parsePercentiles(options.getAggregatePercentiles());
+        double[] quantiles = toQuantiles(percentiles);
+
+        // Index before opening the output, so that invalid inputs do not truncate an existing output file.
+        Map<String, List<Member>> groups = index(options);
+        JsonGenerator jg = Grib2Json.newJsonGenerator(options);
+
+        // Aggregate one group at a time so that only one group's accumulators are in memory at once.
+        jg.writeStartArray();
+        for (Map.Entry<String, List<Member>> entry : groups.entrySet()) {
+            List<Member> members = entry.getValue();
+            EnsembleGrid grid = aggregate(members, jg, options, quantiles);
+            if (grid == null) {
+                continue;
+            }
+            log.info("Aggregated {} members of {}", grid.getMembers(), entry.getKey());
+
+            // The header is written from the metadata of the group's first member.
+            GribRecordWriter rw = new GribRecordWriter(jg, members.get(0).record, options);
+            rw.writeAggregate("mean", grid.getMembers(), grid.getMean());
+            rw.writeAggregate("min", grid.getMembers(), grid.getMin());
+            rw.writeAggregate("max", grid.getMembers(), grid.getMax());
+            rw.writeAggregate("stddev", grid.getMembers(), grid.getStddev());
+            List<QuantileGrid> quantileGrids = grid.getQuantiles();
+            for (int i = 0; i < quantileGrids.size(); i++) {
+                rw.writeAggregate("p" + percentiles[i].trim(), grid.getMembers(), quantileGrids.get(i).toArray());
+            }
+            jg.flush();
+        }
+        jg.writeEnd();
+        jg.close();
+    }
+
+    /**
+     * Aggregate the input files and write the results as specified by the command line options.
+     */
+    public void write() throws IOException {
+        for (Options options : optionGroups) {
+            write(options);
+        }
+    }
+}
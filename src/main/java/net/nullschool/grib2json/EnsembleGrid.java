@@ -0,0 +1,118 @@
+package net.nullschool.grib2json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * Streaming per-point statistics of the members of an ensemble: mean, min, max, standard deviation (spread), and
+ * optionally a set of quantiles. Members are added one at a time and then discarded. Mean and variance use
+ * Welford's method. NaN values are ignored, so each point's statistics cover only the members having a value
+ * at that point.
+ */
+final class EnsembleGrid {
+
+    private final int[] counts;
+    private final double[] means;
+    private final double[] m2s;  // sum of squares of differences from the current mean
+    private final float[] mins;
+    private final float[] maxs;
+    private final List<QuantileGrid> quantiles;
+    private int members;
+
+    EnsembleGrid(int n, double[] quantiles) {
+        this.counts = new int[n];
+        this.means = new double[n];
+        this.m2s = new double[n];
+        this.mins = new float[n];
+        this.maxs = new float[n];
+        List<QuantileGrid> grids = new ArrayList<>();
+        for (double p : quantiles) {
+            grids.add(new QuantileGrid(p, n));
+        }
+        this.quantiles = Collections.unmodifiableList(grids);
+    }
+
+    int getMembers() {
+        return members;
+    }
+
+    /**
+     * Add the data of one member.
+     */
+    void add(float[] data) {
+        if (data.length != counts.length) {
+            throw new IllegalArgumentException(
+                "ensemble member has " + data.length + " points but expected " + counts.length);
+        }
+        members++;
+        for (int i = 0; i < data.length; i++) {
+            float x = data[i];
+            if (Float.isNaN(x)) {
+                continue;
+            }
+            int count = ++counts[i];
+            if (count == 1) {
+                mins[i] = maxs[i] = x;
+            }
+            else {
+                if (x < mins[i]) {
+                    mins[i] = x;
+                }
+                if (x > maxs[i]) {
+                    maxs[i] = x;
+                }
+            }
+            double delta = x - means[i];
+            means[i] += delta / count;
+            m2s[i] += delta * (x - means[i]);
+        }
+        for (QuantileGrid grid : quantiles) {
+            for (int i = 0; i < data.length; i++) {
+                grid.add(i, data[i]);
+            }
+        }
+    }
+
+    float[] getMean() {
+        float[] result = new float[counts.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = counts[i] > 0 ? (float)means[i] : Float.NaN;
+        }
+        return result;
+    }
+
+    float[] getMin() {
+        float[] result = new float[counts.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = counts[i] > 0 ? mins[i] : Float.NaN;
+        }
+        return result;
+    }
+
+    float[] getMax() {
+        float[] result = new float[counts.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = counts[i] > 0 ? maxs[i] : Float.NaN;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the population standard deviation of the members at each point.
+     */
+    float[] getStddev() {
+        float[] result = new float[counts.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = counts[i] > 0 ? (float)Math.sqrt(m2s[i] / counts[i]) : Float.NaN;
+        }
+        return result;
+    }
+
+    List<QuantileGrid> getQuantiles() {
+        return quantiles;
+    }
+}
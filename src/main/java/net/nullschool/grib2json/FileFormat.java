@@ -0,0 +1,131 @@
+package net.nullschool.grib2json;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * The input file formats understood by grib2json. The format of a file is detected from its first few kilobytes
+ * (or for GRIB files with long leading headers, from the first "GRIB" found), so no decoder is tried and
+ * discarded before the right one is found.
+ */
+enum FileFormat {
+
+    GRIB1 {
+        @Override RecordReader open(File file) throws IOException {
+            return Grib1Reader.open(file);
+        }
+    },
+
+    GRIB2 {
+        @Override RecordReader open(File file) throws IOException {
+            return Grib2Reader.open(file);
+        }
+    },
+
+    /**
+     * NetCDF 3 and 4 (HDF5), and anything else netCDF-Java can open.
+     */
+    NETCDF {
+        @Override RecordReader open(File file) throws IOException {
+            return NetcdfReader.open(file);
+        }
+    };
+
+    private static final int PROBE_LENGTH = 4096;  // enough for the NetCDF signatures, and most GRIB headers
+    private static final byte[] HDF5_SIGNATURE = {(byte)0x89, 'H', 'D', 'F', '\r', '\n', 0x1a, '\n'};
+
+    /**
+     * Returns a reader of the specified file, which must be in this format.
+     */
+    abstract RecordReader open(File file) throws IOException;
+
+    private static boolean startsWith(byte[] b, int n, int offset, byte[] prefix) {
+        if (offset + prefix.length > n) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (b[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNetcdfClassic(byte[] b, int n) {
+        return n >= 4 && b[0] == 'C' && b[1] == 'D' && b[2] == 'F' && (b[3] == 1 || b[3] == 2 || b[3] == 5);
+    }
+
+    private static boolean isHdf5(byte[] b, int n) {
+        // The HDF5 superblock may be at offset 0, 512, 1024, 2048, ...
+        for (int offset = 0; offset < n; offset = offset == 0 ? 512 : offset * 2) {
+            if (startsWith(b, n, offset, HDF5_SIGNATURE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads into b[off, b.length) until it is full or the stream ends. Returns the number of bytes read.
+     */
+    private static int read(InputStream in, byte[] b, int off) throws IOException {
+        int n = off, count;
+        while (n < b.length && (count = in.read(b, n, b.length - n)) > 0) {
+            n += count;
+        }
+        return n - off;
+    }
+
+    /**
+     * Returns the format of the first GRIB message found in the stream, given its first n bytes in b, or null if
+     * there is none. Like the decoders themselves, this searches the whole stream, as a GRIB message may follow a
+     * WMO bulletin header or any other leading bytes.
+     */
+    private static FileFormat findGrib(InputStream in, byte[] b, int n) throws IOException {
+        int from = 0;
+        while (true) {
+            int start = GribMessages.indexOfStart(b, from, n);
+            if (start >= 0 && start + GribMessages.INDICATOR_LENGTH <= n) {
+                switch (b[start + 7]) {
+                    case 1: return GRIB1;
+                    case 2: return GRIB2;
+                }
+                from = start + 1;  // not an indicator section after all
+                continue;
+            }
+            // Keep the bytes that may begin an indicator section continuing past the end of the buffer.
+            int keep = start >= 0 ? n - start : Math.min(n, 3);
+            System.arraycopy(b, n - keep, b, 0, keep);
+            int count = read(in, b, keep);
+            if (count == 0) {
+                return null;
+            }
+            n = keep + count;
+            from = 0;
+        }
+    }
+
+    /**
+     * Detect the format of the specified file from its first bytes, or for GRIB, its first message. Files that
+     * are neither GRIB nor recognizably NetCDF are assumed to be NetCDF, leaving the final say to netCDF-Java.
+     */
+    static FileFormat detect(File file) throws IOException {
+        byte[] b = new byte[PROBE_LENGTH];
+        try (InputStream in = new FileInputStream(file)) {
+            int n = read(in, b, 0);
+            if (n == 0) {
+                throw new IllegalArgumentException("Input file is empty: " + file);
+            }
+            if (isNetcdfClassic(b, n) || isHdf5(b, n)) {
+                return NETCDF;
+            }
+            FileFormat format = findGrib(in, b, n);
+            return format != null ? format : NETCDF;
+        }
+    }
+}
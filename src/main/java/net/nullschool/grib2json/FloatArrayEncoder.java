@@ -0,0 +1,213 @@
+package net.nullschool.grib2json;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerationException;
+import javax.json.stream.JsonGenerator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import static java.util.Collections.singletonMap;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * Writes the elements of a record's data array as text encoded directly onto the generator's output stream. JSON-P
+ * has no way to write raw text, so the generator writes the first value itself and is then flushed, and the rest
+ * of the array follows as encoded text. The generator has seen a non-empty array, so it closes the array as usual,
+ * and the output is identical to writing the values one at a time as {@link FloatValue}s.
+ *
+ * Large arrays are split into chunks that are encoded in parallel by fork-join workers, then written in order. Each
+ * chunk is encoded into a buffer borrowed from a small pool, so writing a record allocates no per-value text and
+ * no per-chunk strings. Only a bounded window of chunks is encoded at once, and the pool keeps at most that many
+ * buffers.
+ *
+ * Only generators registered with {@link #attach} have a known stream; arrays written to any other generator are
+ * written value by value. The separator is found by writing a sample record with the generator, so this class must
+ * only be used to write the "data" array of a record object contained in an outermost array (or NDJSON line).
+ */
+final class FloatArrayEncoder {
+
+    static final int CHUNK = 1 << 12;  // values per encoded chunk
+    private static final int WINDOW = ParallelLoop.POOL.getParallelism() * 2;  // chunks encoded at once
+
+    private static final FloatArrayEncoder COMPACT = new FloatArrayEncoder(false);
+    private static final FloatArrayEncoder PRETTY = new FloatArrayEncoder(true);
+
+    private static final Map<JsonGenerator, OutputStream> streams =
+        Collections.synchronizedMap(new WeakHashMap<JsonGenerator, OutputStream>());
+
+    /**
+     * A reusable buffer holding the encoded text of one chunk, and that text as bytes.
+     */
+    private static final class Buffer {
+        final StringBuilder text = new StringBuilder();
+        byte[] bytes = new byte[0];
+        int length;  // number of bytes of encoded text
+
+        /**
+         * Copy the text to the bytes. All Json text for floats and separators is ASCII.
+         */
+        void encodeBytes() {
+            length = text.length();
+            if (bytes.length < length) {
+                bytes = new byte[length + length / 4];
+            }
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte)text.charAt(i);
+            }
+        }
+    }
+
+    private static final ArrayDeque<Buffer> free = new ArrayDeque<>();
+    private static long borrowed;
+    private static long reused;
+
+    private final String separator;
+
+    private FloatArrayEncoder(boolean pretty) {
+        this.separator = findSeparator(pretty);
+    }
+
+    /**
+     * Returns the encoder matching the output format specified by the command line options.
+     */
+    static FloatArrayEncoder of(Options options) {
+        return of(!options.isCompactFormat() && !options.isNdjson());
+    }
+
+    static FloatArrayEncoder of(boolean pretty) {
+        return pretty ? PRETTY : COMPACT;
+    }
+
+    /**
+     * Register the stream the generator writes to, and return the generator. The generator must write directly to
+     * the stream, buffering only what its flush() method writes out.
+     */
+    static JsonGenerator attach(JsonGenerator jg, OutputStream out) {
+        streams.put(jg, out);
+        return jg;
+    }
+
+    private static Buffer borrow() {
+        synchronized (free) {
+            borrowed++;
+            Buffer buffer = free.poll();
+            if (buffer != null) {
+                reused++;
+                return buffer;
+            }
+        }
+        return new Buffer();
+    }
+
+    private static void release(Buffer buffer) {
+        synchronized (free) {
+            if (free.size() < WINDOW) {
+                free.push(buffer);
+            }
+        }
+    }
+
+    /**
+     * Returns a description of the buffer pool's activity, for logging.
+     */
+    static String stats() {
+        synchronized (free) {
+            return String.format("encode buffers: %d borrowed, %d reused", borrowed, reused);
+        }
+    }
+
+    /**
+     * Returns the text the generator writes between two elements of a record's data array.
+     */
+    private static String findSeparator(boolean pretty) {
+        StringWriter out = new StringWriter();
+        JsonGenerator jg = Json.createGeneratorFactory(
+            pretty ? singletonMap(JsonGenerator.PRETTY_PRINTING, true) : null).createGenerator(out);
+        jg.writeStartArray().writeStartObject().writeStartArray("data").write(1).write(2);
+        jg.writeEnd().writeEnd().writeEnd().close();
+        String text = out.toString();
+        return text.substring(text.indexOf('1') + 1, text.indexOf('2'));
+    }
+
+    /**
+     * Encode the values [from, to) into the buffer, each preceded by the separator the generator would write.
+     */
+    private void encode(float[] data, int from, int to, boolean validOnly, Buffer buffer) {
+        StringBuilder text = buffer.text;
+        text.setLength(0);
+        for (int i = from; i < to; i++) {
+            float value = data[i];
+            if (!validOnly || !Float.isNaN(value)) {
+                FloatValue.appendJson(text.append(separator), value);
+            }
+        }
+        buffer.encodeBytes();
+    }
+
+    /**
+     * Write the data as elements of the generator's current array, omitting missing (NaN) values if validOnly.
+     */
+    void write(JsonGenerator jg, final float[] data, final boolean validOnly) {
+        int first = 0;
+        while (validOnly && first < data.length && Float.isNaN(data[first])) {
+            first++;
+        }
+        if (first == data.length) {
+            return;
+        }
+        OutputStream out = streams.get(jg);
+        if (out == null) {
+            for (int i = first; i < data.length; i++) {
+                if (!validOnly || !Float.isNaN(data[i])) {
+                    jg.write(new FloatValue(data[i]));
+                }
+            }
+            return;
+        }
+        jg.write(new FloatValue(data[first]));
+        final int start = first + 1;
+        final int chunks = (data.length - start + CHUNK - 1) / CHUNK;
+        if (chunks == 0) {
+            return;
+        }
+        jg.flush();
+
+        // The values [start, data.length) are encoded in chunks, each written directly to the stream.
+        final Buffer[] buffers = new Buffer[Math.min(chunks, WINDOW)];
+        for (int c = 0; c < buffers.length; c++) {
+            buffers[c] = borrow();
+        }
+        try {
+            for (int base = 0; base < chunks; base += buffers.length) {
+                final int window = base;
+                int count = Math.min(buffers.length, chunks - base);
+                new ParallelLoop(1) {
+                    @Override protected void compute(int from, int to) {
+                        for (int c = from; c < to; c++) {
+                            int begin = start + (window + c) * CHUNK;
+                            encode(data, begin, Math.min(begin + CHUNK, data.length), validOnly, buffers[c]);
+                        }
+                    }
+                }.run(count);
+                for (int c = 0; c < count; c++) {
+                    out.write(buffers[c].bytes, 0, buffers[c].length);
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new JsonGenerationException("I/O error while writing data", e);
+        }
+        finally {
+            for (Buffer buffer : buffers) {
+                release(buffer);
+            }
+        }
+    }
+}
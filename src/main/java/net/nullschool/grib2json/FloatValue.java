@@ -30,6 +30,23 @@ final class FloatValue implements JsonNumber {
     }
 
     @Override public String toString() {
+        String special = special(value);
+        return special != null ? special : Float.toString(value);
+    }
+
+    /**
+     * Append the Json text for the specified float, as described above, and return the builder. Unlike
+     * Float.toString, this allocates no intermediate string.
+     */
+    static StringBuilder appendJson(StringBuilder sb, float value) {
+        String special = special(value);
+        return special != null ? sb.append(special) : sb.append(value);
+    }
+
+    /**
+     * Returns the Json text for NaN and the infinities, or null for all other values.
+     */
+    private static String special(float value) {
         if (Float.isNaN(value)) {
             return "\"NaN\"";
         }
@@ -39,9 +56,7 @@ final class FloatValue implements JsonNumber {
         else if (value == Float.NEGATIVE_INFINITY) {
             return "\"Infinity\"";
         }
-        else {
-            return Float.toString(value);
-        }
+        return null;
     }
 
     @Override public boolean isIntegral() {
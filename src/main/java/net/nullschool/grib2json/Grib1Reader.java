@@ -0,0 +1,96 @@
+package net.nullschool.grib2json;
+
+import ucar.grib.grib1.*;
+import ucar.unidata.io.RandomAccessFile;
+
+import javax.json.stream.JsonGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * Reads GRIB1 records using the netCDF-Java GRIB1 decoder.
+ */
+final class Grib1Reader implements RecordReader {
+
+    private final RandomAccessFile raf;
+    private final Grib1Input input;
+
+    private Grib1Reader(RandomAccessFile raf) throws IOException {
+        raf.order(RandomAccessFile.BIG_ENDIAN);
+        Grib1Input input = new Grib1Input(raf);
+        input.scan(false, false);
+        if (input.getRecords().isEmpty()) {
+            throw new IllegalArgumentException("Cannot decode GRIB1 records: " + raf.getLocation());
+        }
+        this.raf = raf;
+        this.input = input;
+    }
+
+    static Grib1Reader open(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file.getPath(), "r");
+        try {
+            return new Grib1Reader(raf);
+        }
+        catch (IOException | RuntimeException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Throws IllegalArgumentException if the options use GRIB2 codes, which have no meaning for GRIB1 records: the
+     * discipline, category, surface type, and surface value filters, and regridding.
+     */
+    @Override public void check(Options options) {
+        String unsupported =
+            options.getFilterDiscipline() != null ? "--fd" :
+            options.getFilterCategory() != null ? "--fc" :
+            options.getFilterSurface() != null ? "--fs" :
+            options.getFilterValue() != null ? "--fv" :
+            options.getRegrid() != null ? "--regrid" :
+            null;
+        if (unsupported != null) {
+            throw new IllegalArgumentException(unsupported + " is not supported for GRIB1 files: " + raf.getLocation());
+        }
+    }
+
+    @Override public List<DecodedRecord> select(JsonGenerator jg, Options options) {
+        List<DecodedRecord> selected = new ArrayList<>();
+        for (Grib1Record record : input.getRecords()) {
+            final Grib1RecordWriter rw = new Grib1RecordWriter(jg, record, options);
+            if (rw.isSelected()) {
+                selected.add(new DecodedRecord() {
+                    @Override public void writeHeader(RecordStats stats) {
+                        rw.writeHeader(stats);
+                    }
+
+                    @Override public float[] readData() throws IOException {
+                        return rw.readData(new Grib1Data(raf));
+                    }
+
+                    @Override public int getNx() {
+                        return rw.getNx();
+                    }
+
+                    @Override public int getNy() {
+                        return rw.getNy();
+                    }
+
+                    @Override public void writeRecord() throws IOException {
+                        rw.writeRecord(new Grib1Data(raf));
+                    }
+                });
+            }
+        }
+        return selected;
+    }
+
+    @Override public void close() throws IOException {
+        raf.close();
+    }
+}
@@ -0,0 +1,129 @@
+package net.nullschool.grib2json;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import ucar.grib.grib1.*;
+
+import javax.json.stream.JsonGenerator;
+import java.io.IOException;
+
+import static ucar.grib.grib1.Grib1Tables.*;
+
+/**
+ * 2026-10-19<p/>
+ *
+ * Writes a Grib1 record to a JSON generator.
+ *
+ * GRIB1 has no notion of discipline or parameter category, and its parameter, level, and grid codes come from
+ * different tables than their GRIB2 counterparts. The header shares the Grib2 header's keys only where the meaning
+ * is the same, such as center, refTime, forecastTime, and the grid's bounds. GRIB1 codes are written under the
+ * GRIB1 names used by ecCodes: indicatorOfParameter (from parameter table table2Version, specific to the
+ * originating center), indicatorOfTypeOfLevel, level, and dataRepresentationType. For example, U-component of wind
+ * is indicatorOfParameter 33 in the WMO table.
+ */
+final class Grib1RecordWriter extends AbstractRecordWriter {
+
+    private static final int U_WIND = 33;  // WMO table 2: u-component of wind
+    private static final int V_WIND = 34;  // WMO table 2: v-component of wind
+
+    private final Grib1Record record;
+    private final Grib1IndicatorSection ins;
+    private final Grib1Pds pds;
+    private final Grib1GDSVariables gds;
+
+    Grib1RecordWriter(JsonGenerator jg, Grib1Record record, Options options) {
+        super(jg, options);
+        this.record = record;
+        this.ins = record.getIs();
+        this.pds = record.getPDS().getPdsVars();
+        this.gds = record.getGDS().getGdsVars();
+    }
+
+    /**
+     * Return true if the specified command line options do not filter out this record. Only the parameter filter
+     * applies to GRIB1 records; the readers reject the filters that use GRIB2 codes.
+     */
+    boolean isSelected() {
+        String filterParameter = options.getFilterParameter();
+        try {
+            return
+                filterParameter == null ||
+                "wind".equals(filterParameter) &&
+                    (pds.getParameterNumber() == U_WIND || pds.getParameterNumber() == V_WIND) ||
+                Integer.parseInt(filterParameter) == pds.getParameterNumber();
+        }
+        catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void writeIndicator() {
+        write("gribEdition", ins.getGribEdition());
+        write("gribLength", ins.getGribLength());
+    }
+
+    private void writeIdentification() {
+        write("center", pds.getCenter(), names ? getCenter_idName(pds.getCenter()) : null);
+        write("subcenter", pds.getSubCenter());
+        write("refTime", new DateTime(pds.getReferenceTime()).withZone(DateTimeZone.UTC).toString());
+    }
+
+    private void writeProduct() {
+        write("table2Version", pds.getParameterTableVersion());
+        write("indicatorOfParameter", pds.getParameterNumber());
+        write("forecastTime", pds.getForecastTime());
+        write("indicatorOfTypeOfLevel", pds.getLevelType1());
+        write("level", pds.getLevelValue1());
+    }
+
+    private void writeGridDefinition() {
+        write("dataRepresentationType", gds.getGdtn());
+        write("numberPoints", gds.getNx() * gds.getNy());
+        write("scanMode", gds.getScanMode());
+        write("nx", gds.getNx());  // Number of points on x-axis or parallel
+        write("ny", gds.getNy());  // Number of points on y-axis or meridian
+        writeIfSet("lo1", gds.getLo1());  // longitude of first grid point
+        writeIfSet("la1", gds.getLa1());  // latitude of first grid point
+        writeIfSet("lo2", gds.getLo2());  // longitude of last grid point
+        writeIfSet("la2", gds.getLa2());  // latitude of last grid point
+        writeIfSet("dx", gds.getDx());    // i direction increment
+        writeIfSet("dy", gds.getDy());    // j direction increment
+    }
+
+    void writeHeader(RecordStats stats) {
+        jg.writeStartObject("header");
+        writeIndicator();
+        writeIdentification();
+        writeProduct();
+        writeGridDefinition();
+        if (stats != null) {
+            stats.write(jg);
+        }
+        jg.writeEnd();
+    }
+
+    int getNx() {
+        return gds.getNx();
+    }
+
+    int getNy() {
+        return gds.getNy();
+    }
+
+    float[] readData(Grib1Data gd) throws IOException {
+        return gd.getData(record.getDataOffset(), pds.getDecimalScale(), pds.bmsExists());
+    }
+
+    /**
+     * Write the record as a Json object: { "header": { ... }, "data": [ ... ] }
+     */
+    void writeRecord(Grib1Data gd) throws IOException {
+        float[] data = options.getPrintData() || options.getPrintStats() ? readData(gd) : null;
+        jg.writeStartObject();
+        writeHeader(data != null && options.getPrintStats() ? RecordStats.of(data, options) : null);
+        if (data != null && options.getPrintData()) {
+            writeData(data);
+        }
+        jg.writeEnd();
+    }
+}
@@ -1,12 +1,7 @@
 package net.nullschool.grib2json;
 
-import org.joda.time.DateTime;
-import org.joda.time.DateTimeZone;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import ucar.grib.grib2.*;
-import ucar.nc2.NetcdfFile;
-import ucar.unidata.io.RandomAccessFile;
 
 import javax.json.Json;
 import javax.json.stream.JsonGenerator;
@@ -19,7 +14,8 @@ import static java.util.Collections.*;
 /**
  * 2013-10-25<p/>
  *
- * Converts a GRIB2 file to Json. GRIB2 decoding is performed by the netCDF-Java GRIB decoder.
+ * Converts a GRIB2 file to Json. GRIB2 decoding is performed by the netCDF-Java GRIB decoder. GRIB1 and (OSCAR)
+ * NetCDF files are also supported; the format is detected from the file's first bytes.
  *
  * This class was initially based on Grib2Dump, part of the netCDF-Java library written by University
  * Corporation for Atmospheric Research/Unidata. However, what appears below is a complete rewrite.
@@ -42,52 +38,61 @@ public final class Grib2Json {
         this.optionGroups = optionGroups;
     }
 
-    private JsonGenerator newJsonGenerator(Options options) throws IOException {
-        JsonGeneratorFactory jgf =
-            Json.createGeneratorFactory(
-                options.isCompactFormat() ?
-                    null :
-                    singletonMap(JsonGenerator.PRETTY_PRINTING, true));
+    private static JsonGeneratorFactory newJsonGeneratorFactory(Options options) {
+        return Json.createGeneratorFactory(
+            options.isCompactFormat() ?
+                null :
+                singletonMap(JsonGenerator.PRETTY_PRINTING, true));
+    }
 
+    static JsonGenerator newJsonGenerator(Options options) throws IOException {
         OutputStream output = options.getOutput() != null ?
             new BufferedOutputStream(new FileOutputStream(options.getOutput(), false)) :
             System.out;
 
-        return jgf.createGenerator(output);
+        JsonGenerator jg = options.isNdjson() ?
+            new NdjsonGenerator(output) :
+            newJsonGeneratorFactory(options).createGenerator(output);
+        return FloatArrayEncoder.attach(jg, output);
     }
 
-    private void write(RandomAccessFile raf, Grib2Input input, Options options) throws IOException {
-        JsonGenerator jg = newJsonGenerator(options);
-        jg.writeStartArray();
+    /**
+     * Write a tile pyramid for each selected record to the pyramid directory, along with a manifest.json that
+     * describes each record's header and pyramid levels. Records without data are skipped.
+     */
+    private void writePyramid(RecordReader reader, Options options) throws IOException {
+        TilePyramid.Reducer reducer = TilePyramid.Reducer.parse(options.getPyramidReducer());
+        File dir = options.getPyramid();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create directory: " + dir);
+        }
 
-        List<Grib2Record> records = input.getRecords();
-        for (Grib2Record record : records) {
-            GribRecordWriter rw = new GribRecordWriter(jg, record, options);
-            if (rw.isSelected()) {
-                jg.writeStartObject();
-                rw.writeHeader();
-                if (options.getPrintData()) {
-                    rw.writeData(new Grib2Data(raf));
-                }
-                jg.writeEnd();
+        OutputStream output = new BufferedOutputStream(new FileOutputStream(new File(dir, "manifest.json"), false));
+        JsonGenerator jg = newJsonGeneratorFactory(options).createGenerator(output);
+        jg.writeStartArray();
+        int index = 0;
+        for (DecodedRecord record : reader.select(jg, options)) {
+            float[] data = record.readData();
+            if (data == null) {
+                continue;
             }
+            jg.writeStartObject();
+            record.writeHeader(options.getPrintStats() ? RecordStats.of(data, options) : null);
+            TilePyramid pyramid =
+                TilePyramid.build(data, record.getNx(), record.getNy(), options.getPyramidLevels(), reducer);
+            pyramid.write(dir, Integer.toString(index++), options.getPyramidTileSize(), jg);
+            jg.writeEnd();
         }
-
         jg.writeEnd();
         jg.close();
     }
 
-    private void write(NetcdfFile netcdfFile, Options options) throws IOException {
+    private void write(RecordReader reader, Options options) throws IOException {
         JsonGenerator jg = newJsonGenerator(options);
         jg.writeStartArray();
-
-        int days = netcdfFile.findVariable("time").readScalarInt();
-        DateTime date = new DateTime(1992, 10, 5, 0, 0, DateTimeZone.UTC).plusDays(days);
-        double depth = netcdfFile.findVariable("depth").readScalarDouble();
-
-        new OscarRecordWriter(jg, netcdfFile.findVariable("u"), date, depth, options).writeRecord();
-        new OscarRecordWriter(jg, netcdfFile.findVariable("v"), date, depth, options).writeRecord();
-
+        for (DecodedRecord record : reader.select(jg, options)) {
+            record.writeRecord();
+        }
         jg.writeEnd();
         jg.close();
     }
@@ -96,25 +101,19 @@ public final class Grib2Json {
      * Convert the input file to Json as specified by the command line options.
      */
     public void write() throws IOException {
-
-        // Try opening the file as GRIB format.
-        RandomAccessFile raf = new RandomAccessFile(file.getPath(), "r");
-        raf.order(RandomAccessFile.BIG_ENDIAN);
-        Grib2Input input = new Grib2Input(raf);
-        if (input.scan(false, false)) {
+        FileFormat format = FileFormat.detect(file);
+        log.info("Reading {} as {}", file, format);
+        try (RecordReader reader = format.open(file)) {
             for (Options options : optionGroups) {
-                write(raf, input, options);
+                reader.check(options);
             }
-            raf.close();
-        }
-        else {
-            raf.close();
-
-            // Otherwise, process it as NetCDF format.
-            NetcdfFile netcdfFile = NetcdfFile.open(file.getPath());
-            log.info("File contents:\n{}", netcdfFile);
             for (Options options : optionGroups) {
-                write(netcdfFile, options);
+                if (options.getPyramid() != null) {
+                    writePyramid(reader, options);
+                }
+                else {
+                    write(reader, options);
+                }
             }
         }
     }
@@ -0,0 +1,85 @@
+package net.nullschool.grib2json;
+
+import ucar.grib.grib2.*;
+import ucar.unidata.io.RandomAccessFile;
+
+import javax.json.stream.JsonGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * Reads GRIB2 records using the netCDF-Java GRIB2 decoder.
+ */
+final class Grib2Reader implements RecordReader {
+
+    private final RandomAccessFile raf;
+    private final Grib2Input input;
+
+    /**
+     * Scan the GRIB2 messages of the specified file, which may be a file on disk or a message held in memory.
+     * Throws IllegalArgumentException if no GRIB2 records can be decoded.
+     */
+    Grib2Reader(RandomAccessFile raf) throws IOException {
+        raf.order(RandomAccessFile.BIG_ENDIAN);
+        Grib2Input input = new Grib2Input(raf);
+        if (!input.scan(false, false)) {
+            throw new IllegalArgumentException("Cannot decode GRIB2 records: " + raf.getLocation());
+        }
+        this.raf = raf;
+        this.input = input;
+    }
+
+    static Grib2Reader open(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file.getPath(), "r");
+        try {
+            return new Grib2Reader(raf);
+        }
+        catch (IOException | RuntimeException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    @Override public void check(Options options) {
+    }
+
+    @Override public List<DecodedRecord> select(JsonGenerator jg, Options options) {
+        List<DecodedRecord> selected = new ArrayList<>();
+        for (Grib2Record record : input.getRecords()) {
+            final GribRecordWriter rw = new GribRecordWriter(jg, record, options);
+            if (rw.isSelected()) {
+                selected.add(new DecodedRecord() {
+                    @Override public void writeHeader(RecordStats stats) {
+                        rw.writeHeader(stats);
+                    }
+
+                    @Override public float[] readData() throws IOException {
+                        return rw.readData(new Grib2Data(raf));
+                    }
+
+                    @Override public int getNx() {
+                        return rw.getNx();
+                    }
+
+                    @Override public int getNy() {
+                        return rw.getNy();
+                    }
+
+                    @Override public void writeRecord() throws IOException {
+                        rw.writeRecord(new Grib2Data(raf));
+                    }
+                });
+            }
+        }
+        return selected;
+    }
+
+    @Override public void close() throws IOException {
+        raf.close();
+    }
+}
@@ -0,0 +1,113 @@
+package net.nullschool.grib2json;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ucar.unidata.io.InMemoryRandomAccessFile;
+
+import javax.json.stream.JsonGenerator;
+import java.io.IOException;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * Utilities for framing and decoding individual GRIB messages, for inputs that cannot be scanned as a whole file.
+ *
+ * Every GRIB message starts with an indicator section: the four bytes "GRIB", followed (for edition 2) by two
+ * reserved bytes, the discipline, the edition number, and the total length of the message as an eight byte
+ * unsigned integer. Edition 1 messages instead store a three byte length immediately after "GRIB". Every message
+ * ends with the four bytes "7777". This is enough to determine when a message is complete without decoding it.
+ */
+final class GribMessages {
+
+    private static final Logger log = LoggerFactory.getLogger(GribMessages.class);
+
+    /**
+     * Number of bytes needed to determine a message's edition and length.
+     */
+    static final int INDICATOR_LENGTH = 16;
+
+    private GribMessages() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Returns true if the bytes at the specified offset are "GRIB".
+     */
+    static boolean isStart(byte[] b, int offset) {
+        return b[offset] == 'G' && b[offset + 1] == 'R' && b[offset + 2] == 'I' && b[offset + 3] == 'B';
+    }
+
+    /**
+     * Returns the offset of the first "GRIB" in b[from, to), or -1 if there is none.
+     */
+    static int indexOfStart(byte[] b, int from, int to) {
+        for (int i = from; i <= to - 4; i++) {
+            if (isStart(b, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the edition of the message having the specified indicator section.
+     */
+    static int edition(byte[] indicator) {
+        return indicator[7] & 0xff;
+    }
+
+    /**
+     * Returns the total length in bytes of the message having the specified indicator section.
+     */
+    static long length(byte[] indicator) {
+        if (edition(indicator) == 1) {
+            return (indicator[4] & 0xff) << 16 | (indicator[5] & 0xff) << 8 | (indicator[6] & 0xff);
+        }
+        long length = 0;
+        for (int i = 8; i < 16; i++) {
+            length = length << 8 | (indicator[i] & 0xff);
+        }
+        return length;
+    }
+
+    /**
+     * Returns true if the complete message ends with "7777".
+     */
+    static boolean hasEnd(byte[] message) {
+        int n = message.length;
+        return
+            n >= 4 &&
+            message[n - 4] == '7' && message[n - 3] == '7' && message[n - 2] == '7' && message[n - 1] == '7';
+    }
+
+    /**
+     * Decode a single, complete GRIB2 message held in memory and write its selected records to the generator,
+     * flushing afterwards so that consumers can see the records immediately.
+     *
+     * @param name a name for the message, used in log output.
+     */
+    static void write(String name, byte[] message, JsonGenerator jg, Options options) throws IOException {
+        if (!hasEnd(message)) {
+            log.warn("Skipping truncated GRIB message: {}", name);
+            return;
+        }
+        Grib2Reader reader;
+        try {
+            reader = new Grib2Reader(new InMemoryRandomAccessFile(name, message));
+        }
+        catch (IllegalArgumentException e) {
+            log.warn("Skipping undecodable GRIB message: {}", name);
+            return;
+        }
+        try {
+            for (DecodedRecord record : reader.select(jg, options)) {
+                record.writeRecord();
+            }
+        }
+        finally {
+            reader.close();
+        }
+        jg.flush();
+    }
+}
@@ -29,6 +29,7 @@ final class GribRecordWriter extends AbstractRecordWriter {
     private final Grib2IdentificationSection ids;
     private final Grib2Pds pds;
     private final Grib2GDSVariables gds;
+    private final LonLatGrid target;  // the grid to regrid to, or null if not regridding
 
     GribRecordWriter(JsonGenerator jg, Grib2Record record, Options options) {
         super(jg, options);
@@ -37,37 +38,55 @@ final class GribRecordWriter extends AbstractRecordWriter {
         this.ids = record.getId();
         this.pds = record.getPDS().getPdsVars();
         this.gds = record.getGDS().getGdsVars();
+        this.target = options.getRegrid() != null ? LonLatGrid.parse(options.getRegrid()) : null;
     }
 
-    private boolean isSelected(String filterParameter) {
+    private static boolean isSelected(String filterParameter, int parameterNumber) {
         try {
             return
                 filterParameter == null ||
-                "wind".equals(filterParameter) && (pds.getParameterNumber() == 2 || pds.getParameterNumber() == 3) ||
-                Integer.parseInt(filterParameter) == pds.getParameterNumber();
+                "wind".equals(filterParameter) && (parameterNumber == 2 || parameterNumber == 3) ||
+                Integer.parseInt(filterParameter) == parameterNumber;
         }
         catch (NumberFormatException e) {
             return false;
         }
     }
 
+    /**
+     * Return true if the specified command line options do not filter out a record having the specified discipline,
+     * category, and parameter. Surface filters are not considered.
+     */
+    static boolean isSelected(Options options, int discipline, int category, int parameterNumber) {
+        return
+            (options.getFilterDiscipline() == null || options.getFilterDiscipline() == discipline) &&
+            (options.getFilterCategory() == null || options.getFilterCategory() == category) &&
+            isSelected(options.getFilterParameter(), parameterNumber);
+    }
+
+    /**
+     * Return true if the specified command line options do not filter out the specified record.
+     */
+    static boolean isSelected(Options options, Grib2Record record) {
+        Grib2Pds pds = record.getPDS().getPdsVars();
+        return
+            isSelected(options, record.getIs().getDiscipline(), pds.getParameterCategory(), pds.getParameterNumber()) &&
+            (options.getFilterSurface() == null || options.getFilterSurface() == pds.getLevelType1()) &&
+            (options.getFilterValue() == null   || options.getFilterValue() == pds.getLevelValue1());
+    }
+
     /**
      * Return true if the specified command line options do not filter out this record.
      */
     boolean isSelected() {
-        return
-            (options.getFilterDiscipline() == null || options.getFilterDiscipline() == ins.getDiscipline()) &&
-            (options.getFilterCategory() == null || options.getFilterCategory() == pds.getParameterCategory()) &&
-            (options.getFilterSurface() == null  || options.getFilterSurface() == pds.getLevelType1()) &&
-            (options.getFilterValue() == null    || options.getFilterValue() == pds.getLevelValue1()) &&
-            isSelected(options.getFilterParameter());
+        return isSelected(options, record);
     }
 
     /**
      * Write contents of the record's indicator section.
      */
     private void writeIndicator() {
-        write("discipline", ins.getDiscipline(), ins.getDisciplineName());
+        write("discipline", ins.getDiscipline(), names ? ins.getDisciplineName() : null);
         write("gribEdition", ins.getGribEdition());
         write("gribLength", ins.getGribLength());
     }
@@ -76,12 +95,12 @@ final class GribRecordWriter extends AbstractRecordWriter {
      * Write contents of the record's identification section.
      */
     private void writeIdentification() {
-        write("center", ids.getCenter_id(), getCenter_idName(ids.getCenter_id()));
+        write("center", ids.getCenter_id(), names ? getCenter_idName(ids.getCenter_id()) : null);
         write("subcenter", ids.getSubcenter_id());
         write("refTime", new DateTime(ids.getRefTime()).withZone(DateTimeZone.UTC).toString());
-        write("significanceOfRT", ids.getSignificanceOfRT(), ids.getSignificanceOfRTName());
-        write("productStatus", ids.getProductStatus(), ids.getProductStatusName());
-        write("productType", ids.getProductType(), ids.getProductTypeName());
+        write("significanceOfRT", ids.getSignificanceOfRT(), names ? ids.getSignificanceOfRTName() : null);
+        write("productStatus", ids.getProductStatus(), names ? ids.getProductStatusName() : null);
+        write("productType", ids.getProductType(), names ? ids.getProductTypeName() : null);
     }
 
     /**
@@ -93,21 +112,21 @@ final class GribRecordWriter extends AbstractRecordWriter {
         final int paramCategory = pds.getParameterCategory();
         final int paramNumber = pds.getParameterNumber();
 
-        write("productDefinitionTemplate", productDef, codeTable4_0(productDef));
-        write("parameterCategory", paramCategory, getCategoryName(discipline, paramCategory));
-        write("parameterNumber", paramNumber, getParameterName(discipline, paramCategory, paramNumber));
+        write("productDefinitionTemplate", productDef, names ? codeTable4_0(productDef) : null);
+        write("parameterCategory", paramCategory, names ? getCategoryName(discipline, paramCategory) : null);
+        write("parameterNumber", paramNumber, names ? getParameterName(discipline, paramCategory, paramNumber) : null);
         write("parameterUnit", getParameterUnit(discipline, paramCategory, paramNumber));
-        write("genProcessType", pds.getGenProcessType(), codeTable4_3(pds.getGenProcessType()));
+        write("genProcessType", pds.getGenProcessType(), names ? codeTable4_3(pds.getGenProcessType()) : null);
         write("forecastTime", pds.getForecastTime());
-        write("surface1Type", pds.getLevelType1(), codeTable4_5(pds.getLevelType1()));
+        write("surface1Type", pds.getLevelType1(), names ? codeTable4_5(pds.getLevelType1()) : null);
         write("surface1Value", pds.getLevelValue1());
-        write("surface2Type", pds.getLevelType2(), codeTable4_5(pds.getLevelType2()));
+        write("surface2Type", pds.getLevelType2(), names ? codeTable4_5(pds.getLevelType2()) : null);
         write("surface2Value", pds.getLevelValue2());
     }
 
     private void writeGridShape() {
         // See http://www.nco.ncep.noaa.gov/pmb/docs/grib2/grib2_table3-2.shtml
-        write("shape", gds.getShape(), codeTable3_2(gds.getShape()));
+        write("shape", gds.getShape(), names ? codeTable3_2(gds.getShape()) : null);
         switch (gds.getShape()) {
             case 1:  // Earth assumed spherical with radius specified (in m) by data producer
                 write("earthRadius", gds.getEarthRadius());
@@ -207,14 +226,78 @@ final class GribRecordWriter extends AbstractRecordWriter {
         writeGridSize();
     }
 
+    /**
+     * Return true if the record is a component of a vector quantity (wind, gust, storm motion, or ocean current)
+     * resolved relative to the x and y directions of its grid rather than to east and north.
+     */
+    private boolean isGridRelativeVector() {
+        if (!isBitSet(gds.getResolution(), BIT_5)) {
+            return false;
+        }
+        int discipline = ins.getDiscipline();
+        int category = pds.getParameterCategory();
+        switch (pds.getParameterNumber()) {
+            case 2: case 3:  // u and v components of wind (0-2), or of ocean current (10-1)
+                return discipline == 0 && category == 2 || discipline == 10 && category == 1;
+            case 23: case 24:  // u and v components of gust
+            case 27: case 28:  // u and v components of storm motion
+                return discipline == 0 && category == 2;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Throws IllegalArgumentException if the record cannot be regridded. Regridding interpolates each record on its
+     * own, so it cannot rotate grid-relative vector components, which needs both components at once; copying them
+     * unrotated onto a lon/lat grid would give wrong directions.
+     */
+    private void checkRegrid() {
+        if (target != null && isGridRelativeVector()) {
+            throw new IllegalArgumentException(String.format(
+                "Cannot regrid grid-relative vector component %d-%d-%d: rotation to east/north is not supported",
+                ins.getDiscipline(), pds.getParameterCategory(), pds.getParameterNumber()));
+        }
+    }
+
+    /**
+     * Write the regular lon/lat grid the record's data has been regridded to, in place of the record's own
+     * grid definition. Grid-relative vector components are rejected by {@link #checkRegrid}, so the data of the
+     * regridded grid is always resolved to east and north.
+     */
+    private void writeRegriddedGrid() {
+        checkRegrid();
+        write("gridDefinitionTemplate", 0, names ? codeTable3_1(0) : null);
+        write("numberPoints", target.getNumberPoints());
+        writeGridShape();
+        write("gridUnits", "degrees");
+        write("resolution", gds.getResolution() & ~BIT_5);
+        write("winds", "true");
+        write("scanMode", 0);
+        write("nx", target.nx);
+        write("ny", target.ny);
+        write("lo1", target.lo1);
+        write("la1", target.la1);
+        write("lo2", target.lo2());
+        write("la2", target.la2());
+        write("dx", target.dx);
+        write("dy", target.dy);
+        write("regriddedFrom", gds.getGdtn(), names ? codeTable3_1(gds.getGdtn()) : null);
+    }
+
     /**
      * Write contents of the record's grid definition section.
      * See http://www.nco.ncep.noaa.gov/pmb/docs/grib2/grib2_table3-1.shtml
      */
     private void writeGridDefinition() {
+        if (target != null) {
+            writeRegriddedGrid();
+            return;
+        }
+
         final int gridTemplate = gds.getGdtn();
 
-        write("gridDefinitionTemplate", gridTemplate, codeTable3_1(gridTemplate));
+        write("gridDefinitionTemplate", gridTemplate, names ? codeTable3_1(gridTemplate) : null);
         write("numberPoints", gds.getNumberPoints());
 
         switch (gridTemplate) {
@@ -250,27 +333,81 @@ final class GribRecordWriter extends AbstractRecordWriter {
 
     /**
      * Write the record's header as a Json object: "header": { ... }
+     *
+     * @param stats the statistics of the record's data to include in the header, or null for none.
      */
-    void writeHeader() {
+    void writeHeader(RecordStats stats) {
+        writeHeader(stats, null, 0);
+    }
+
+    private void writeHeader(RecordStats stats, String ensembleStatistic, int ensembleMembers) {
         jg.writeStartObject("header");
         writeIndicator();
         writeIdentification();
         writeProduct();
         writeGridDefinition();
+        if (ensembleStatistic != null) {
+            write("ensembleStatistic", ensembleStatistic);
+            write("ensembleMembers", ensembleMembers);
+        }
+        if (stats != null) {
+            stats.write(jg);
+        }
         jg.writeEnd();
     }
 
     /**
-     * Write the record's data as a Json array: "data": [ ... ]
+     * Number of points on the x-axis of the data returned by {@link #readData}.
      */
-    void writeData(Grib2Data gd) throws IOException {
+    int getNx() {
+        return target != null ? target.nx : gds.getNx();
+    }
+
+    /**
+     * Number of points on the y-axis of the data returned by {@link #readData}.
+     */
+    int getNy() {
+        return target != null ? target.ny : gds.getNy();
+    }
+
+    /**
+     * Decode the record's data, regridding it if the command line options specify a target grid.
+     */
+    float[] readData(Grib2Data gd) throws IOException {
+        checkRegrid();
         float[] data = gd.getData(record.getGdsOffset(), record.getPdsOffset(), ids.getRefTime());
-        if (data != null) {
-            jg.writeStartArray("data");
-            for (float value : data) {
-                jg.write(new FloatValue(value));
-            }
-            jg.writeEnd();
+        if (data != null && target != null) {
+            data = Regridder.get(GridProjection.forGds(gds), target, options.getRegridCache()).apply(data);
         }
+        return data;
+    }
+
+    /**
+     * Write the record as a Json object: { "header": { ... }, "data": [ ... ] }
+     *
+     * The data is decoded only if the command line options ask for the data or its statistics. Because the header
+     * precedes the data, the statistics are accumulated in one pass over the decoded data before either is written.
+     */
+    void writeRecord(Grib2Data gd) throws IOException {
+        float[] data = options.getPrintData() || options.getPrintStats() ? readData(gd) : null;
+        jg.writeStartObject();
+        writeHeader(data != null && options.getPrintStats() ? RecordStats.of(data, options) : null);
+        if (data != null && options.getPrintData()) {
+            writeData(data);
+        }
+        jg.writeEnd();
+    }
+
+    /**
+     * Write an ensemble statistic as a Json object: { "header": { ... }, "data": [ ... ] }
+     * The header is this record's header plus the name of the statistic and the number of members aggregated.
+     */
+    void writeAggregate(String statistic, int members, float[] data) {
+        jg.writeStartObject();
+        writeHeader(options.getPrintStats() ? RecordStats.of(data, options) : null, statistic, members);
+        if (options.getPrintData()) {
+            writeData(data);
+        }
+        jg.writeEnd();
     }
 }
@@ -0,0 +1,232 @@
+package net.nullschool.grib2json;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.json.stream.JsonGenerator;
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * Reads GRIB2 messages one at a time from a sequential, non-seekable stream such as stdin, so that piped input
+ * need not first be written to disk.
+ *
+ * Each message is read section by section. When a product definition section (section 4) is encountered, the
+ * field's discipline, category, and parameter are checked against the filters of every option group. The data
+ * sections (5, 6, 7) of fields rejected by all groups are skipped without being buffered. The remaining fields
+ * are reassembled into a smaller, valid GRIB2 message that is then decoded and subjected to the full filters.
+ * Only the current message is ever held in memory.
+ */
+final class GribStreamReader {
+
+    private static final Logger log = LoggerFactory.getLogger(GribStreamReader.class);
+
+    private static final int SECTION_HEADER_LENGTH = 5;  // 4 byte length followed by 1 byte section number
+    private static final int BITMAP_DEFINED = 0;          // bitmap indicator: a bitmap follows
+    private static final int BITMAP_PREDEFINED = 254;     // bitmap indicator: use the previously defined bitmap
+    private static final byte[] END = {'7', '7', '7', '7'};
+
+    private final DataInputStream in;
+    private final List<Options> optionGroups;
+    private long position;  // bytes consumed from the stream so far
+
+    GribStreamReader(InputStream in, List<Options> optionGroups) {
+        this.in = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+        this.optionGroups = optionGroups;
+    }
+
+    private void readFully(byte[] b, int off, int len) throws IOException {
+        in.readFully(b, off, len);
+        position += len;
+    }
+
+    private void skipFully(long n) throws IOException {
+        while (n > 0) {
+            long skipped = in.skip(n);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new EOFException();
+                }
+                skipped = 1;
+            }
+            n -= skipped;
+            position += skipped;
+        }
+    }
+
+    /**
+     * Advance to just past the next "GRIB" in the stream. Returns false if the stream ended first.
+     */
+    private boolean findStart(byte[] indicator) throws IOException {
+        int matched = 0;
+        int b;
+        while (matched < 4 && (b = in.read()) >= 0) {
+            position++;
+            if (b == "GRIB".charAt(matched)) {
+                matched++;
+            }
+            else {
+                matched = b == 'G' ? 1 : 0;
+            }
+        }
+        if (matched < 4) {
+            return false;
+        }
+        indicator[0] = 'G';
+        indicator[1] = 'R';
+        indicator[2] = 'I';
+        indicator[3] = 'B';
+        return true;
+    }
+
+    private boolean isSelected(int discipline, byte[] productSection) {
+        int category = productSection[9] & 0xff;
+        int parameterNumber = productSection[10] & 0xff;
+        for (Options options : optionGroups) {
+            if (GribRecordWriter.isSelected(options, discipline, category, parameterNumber)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int int4(byte[] b) {
+        return (b[0] & 0xff) << 24 | (b[1] & 0xff) << 16 | (b[2] & 0xff) << 8 | (b[3] & 0xff);
+    }
+
+    private byte[] readSection(byte[] header, int length) throws IOException {
+        byte[] section = new byte[length];
+        System.arraycopy(header, 0, section, 0, SECTION_HEADER_LENGTH);
+        readFully(section, SECTION_HEADER_LENGTH, length - SECTION_HEADER_LENGTH);
+        return section;
+    }
+
+    /**
+     * Returns the next message containing at least one field that may be selected, reduced to only such fields,
+     * or null if the stream has ended.
+     */
+    byte[] next() throws IOException {
+        byte[] indicator = new byte[GribMessages.INDICATOR_LENGTH];
+        while (findStart(indicator)) {
+            long start = position - 4;
+            readFully(indicator, 4, indicator.length - 4);
+            long remaining = GribMessages.length(indicator) - indicator.length;
+            if (GribMessages.edition(indicator) != 2) {
+                log.warn("Skipping GRIB edition {} message at {}", GribMessages.edition(indicator), start);
+                skipFully(remaining);
+                continue;
+            }
+
+            final int discipline = indicator[6] & 0xff;
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write(indicator);
+            byte[] localUse = null, grid = null;  // sections not yet written to out
+            byte[] lastBitmap = null;  // most recently defined bitmap section
+            boolean lastBitmapWritten = false;  // whether lastBitmap is also the most recent one written to out
+            boolean fieldSelected = false;
+            boolean anySelected = false;
+            byte[] header = new byte[SECTION_HEADER_LENGTH];
+
+            while (remaining > END.length) {
+                readFully(header, 0, header.length);
+                int length = int4(header);
+                int number = header[4] & 0xff;
+                if (length < SECTION_HEADER_LENGTH || length > remaining) {
+                    throw new IOException("Invalid GRIB2 section " + number + " at " + (position - header.length));
+                }
+                remaining -= length;
+
+                switch (number) {
+                    case 1:  // identification
+                        out.write(readSection(header, length));
+                        break;
+                    case 2:  // local use
+                        localUse = readSection(header, length);
+                        break;
+                    case 3:  // grid definition
+                        grid = readSection(header, length);
+                        break;
+                    case 4:  // product definition
+                        byte[] product = readSection(header, length);
+                        fieldSelected = isSelected(discipline, product);
+                        if (fieldSelected) {
+                            anySelected = true;
+                            if (localUse != null) {
+                                out.write(localUse);
+                                localUse = null;
+                            }
+                            if (grid != null) {
+                                out.write(grid);
+                                grid = null;
+                            }
+                            out.write(product);
+                        }
+                        break;
+                    case 6:  // bitmap: always read, as later fields may refer to it
+                        byte[] bitmap = readSection(header, length);
+                        int bitmapIndicator = bitmap[5] & 0xff;
+                        if (bitmapIndicator == BITMAP_DEFINED) {
+                            lastBitmap = bitmap;
+                            lastBitmapWritten = false;
+                        }
+                        else if (bitmapIndicator == BITMAP_PREDEFINED && lastBitmap != null && !lastBitmapWritten) {
+                            bitmap = lastBitmap;  // the referenced bitmap was skipped along with its field
+                        }
+                        if (fieldSelected) {
+                            out.write(bitmap);
+                            lastBitmapWritten |= bitmap == lastBitmap;
+                        }
+                        break;
+                    default:  // data representation, data, or unknown
+                        if (fieldSelected) {
+                            out.write(readSection(header, length));
+                        }
+                        else {
+                            skipFully(length - SECTION_HEADER_LENGTH);
+                        }
+                        break;
+                }
+            }
+            skipFully(remaining);  // the end section, "7777"
+
+            if (anySelected) {
+                out.write(END);
+                byte[] message = out.toByteArray();
+                long length = message.length;
+                for (int i = 15; i >= 8; i--, length >>>= 8) {
+                    message[i] = (byte)length;
+                }
+                return message;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Convert every message of the stream as specified by the option groups.
+     */
+    public void write() throws IOException {
+        List<JsonGenerator> generators = new ArrayList<>();
+        for (Options options : optionGroups) {
+            JsonGenerator jg = Grib2Json.newJsonGenerator(options);
+            jg.writeStartArray();
+            generators.add(jg);
+        }
+
+        byte[] message;
+        for (int count = 0; (message = next()) != null; count++) {
+            for (int g = 0; g < generators.size(); g++) {
+                GribMessages.write("stdin#" + count, message, generators.get(g), optionGroups.get(g));
+            }
+        }
+
+        for (JsonGenerator jg : generators) {
+            jg.writeEnd();
+            jg.close();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package net.nullschool.grib2json;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.json.stream.JsonGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.*;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * Converts GRIB2 messages as they are appended to a file that is still being written, such as a file being
+ * downloaded. The path may also be a directory, in which case every file in the directory is followed. Each
+ * message is decoded and written as soon as its last byte arrives, so output begins long before the download
+ * completes.
+ *
+ * There is no portable way to know when the writer has closed the file, so watching ends once no watched file
+ * has changed for the timeout period.
+ */
+final class GribWatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(GribWatcher.class);
+
+    private static final long POLL_MILLIS = 250;
+    static final int SEARCH_CHUNK = 64 * 1024;
+
+    private static final class Position {
+        long offset;  // start of the next unprocessed message
+        long size;    // file size as of the last poll
+    }
+
+    private final File path;
+    private final List<Options> optionGroups;
+    private final long timeoutMillis;
+    private final Map<File, Position> positions = new HashMap<>();
+
+    GribWatcher(File path, List<Options> optionGroups, long timeoutMillis) {
+        this.path = path;
+        this.optionGroups = optionGroups;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    private List<File> watchedFiles() {
+        if (path.isDirectory()) {
+            File[] files = path.listFiles();
+            List<File> result = new ArrayList<>();
+            if (files != null) {
+                Arrays.sort(files);
+                for (File file : files) {
+                    if (file.isFile()) {
+                        result.add(file);
+                    }
+                }
+            }
+            return result;
+        }
+        return path.isFile() ? Collections.singletonList(path) : Collections.<File>emptyList();
+    }
+
+    /**
+     * Receives the complete messages found by {@link #frame}.
+     */
+    interface MessageHandler {
+        void handle(long offset, byte[] message) throws IOException;
+    }
+
+    /**
+     * Pass each complete GRIB2 message in raf[offset, size) to the handler, skipping bytes that are not part of a
+     * message and messages of other editions. Returns the offset at which to resume once more bytes have been
+     * appended: the start of the first incomplete message, or of a partial indicator or "GRIB" marker at the end.
+     */
+    static long frame(RandomAccessFile raf, long offset, long size, MessageHandler handler) throws IOException {
+        byte[] indicator = new byte[GribMessages.INDICATOR_LENGTH];
+        while (size - offset >= indicator.length) {
+            raf.seek(offset);
+            raf.readFully(indicator);
+
+            if (!GribMessages.isStart(indicator, 0)) {
+                // Skip ahead to the next "GRIB", keeping a few bytes in case the marker straddles the end.
+                byte[] chunk = new byte[(int)Math.min(SEARCH_CHUNK, size - offset)];
+                raf.seek(offset);
+                raf.readFully(chunk);
+                int i = GribMessages.indexOfStart(chunk, 0, chunk.length);
+                offset += i >= 0 ? i : chunk.length - 3;
+                continue;
+            }
+
+            int edition = GribMessages.edition(indicator);
+            long length = GribMessages.length(indicator);
+            if ((edition != 1 && edition != 2) || length < indicator.length) {
+                // Not a real message, so resynchronize on the next "GRIB" rather than wait for this one to end.
+                offset++;
+                continue;
+            }
+            if (size - offset < length) {
+                break;  // message is not yet complete
+            }
+            if (edition != 2 || length > Integer.MAX_VALUE) {
+                log.warn("Skipping unsupported GRIB message at {}", offset);
+            }
+            else {
+                byte[] message = new byte[(int)length];
+                raf.seek(offset);
+                raf.readFully(message);
+                handler.handle(offset, message);
+            }
+            offset += length;
+        }
+        return offset;
+    }
+
+    /**
+     * Write all complete messages not yet processed from the file. Returns true if the file changed since the
+     * last poll.
+     */
+    private boolean drain(final File file, final List<JsonGenerator> generators) throws IOException {
+        Position position = positions.get(file);
+        if (position == null) {
+            positions.put(file, position = new Position());
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long size = raf.length();
+            boolean changed = size != position.size;
+            position.size = size;
+            position.offset = frame(raf, position.offset, size, new MessageHandler() {
+                @Override public void handle(long offset, byte[] message) throws IOException {
+                    String name = file.getName() + "@" + offset;
+                    for (int g = 0; g < generators.size(); g++) {
+                        GribMessages.write(name, message, generators.get(g), optionGroups.get(g));
+                    }
+                }
+            });
+            return changed;
+        }
+    }
+
+    /**
+     * Follow the path, converting messages as they arrive, until nothing has changed for the timeout period.
+     */
+    public void write() throws IOException, InterruptedException {
+        List<JsonGenerator> generators = new ArrayList<>();
+        for (Options options : optionGroups) {
+            JsonGenerator jg = Grib2Json.newJsonGenerator(options);
+            jg.writeStartArray();
+            generators.add(jg);
+        }
+
+        long lastChange = System.currentTimeMillis();
+        while (true) {
+            boolean changed = false;
+            for (File file : watchedFiles()) {
+                changed |= drain(file, generators);
+            }
+            long now = System.currentTimeMillis();
+            if (changed) {
+                lastChange = now;
+            }
+            else if (now - lastChange >= timeoutMillis) {
+                break;
+            }
+            Thread.sleep(POLL_MILLIS);
+        }
+
+        for (Map.Entry<File, Position> entry : positions.entrySet()) {
+            if (entry.getValue().offset < entry.getValue().size) {
+                log.warn("Ignoring incomplete data at end of {}", entry.getKey());
+            }
+        }
+        for (JsonGenerator jg : generators) {
+            jg.writeEnd();
+            jg.close();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package net.nullschool.grib2json;
+
+import ucar.grib.grib2.Grib2GDSVariables;
+import ucar.unidata.geoloc.LatLonPointImpl;
+import ucar.unidata.geoloc.ProjectionImpl;
+import ucar.unidata.geoloc.ProjectionPoint;
+import ucar.unidata.geoloc.projection.*;
+
+import java.util.Locale;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * Maps lon/lat coordinates to fractional (i, j) positions within the grid described by a GRIB2 grid definition
+ * section. Projection math is delegated to the netCDF-Java geoloc projections. Only grids stored row by row, with
+ * every row in the same direction, are supported; other scan modes are rejected.
+ *
+ * Instances are not thread safe because the underlying projections are not.
+ */
+final class GridProjection {
+
+    private static final int SCAN_I_NEGATIVE = 0x80;  // points of first row scan in the -i direction
+    private static final int SCAN_J_POSITIVE = 0x40;  // points of first column scan in the +j direction
+    private static final int SCAN_J_CONSECUTIVE = 0x20;  // adjacent points in j direction are consecutive
+    private static final int SCAN_ALTERNATING = 0x10;  // rows alternate direction
+    private static final int SOUTH_POLE_CENTER = 0x80;  // projection center flag: south pole is on the plane
+
+    private final String key;
+    private final ProjectionImpl projection;  // null for regular lon/lat grids
+    private final boolean degrees;  // true if projection coordinates are lon/lat degrees
+    private final double x1, y1;  // projection coordinates of the first grid point
+    private final double dx, dy;  // signed increments in projection coordinates
+    final int nx, ny;
+
+    private GridProjection(String key, ProjectionImpl projection, Grib2GDSVariables gds, double dx, double dy) {
+        this(key, projection, gds, dx, dy, 0);
+    }
+
+    /**
+     * @param lonShift degrees to add to the longitude of the first grid point of a lon/lat grid.
+     */
+    private GridProjection(
+        String key,
+        ProjectionImpl projection,
+        Grib2GDSVariables gds,
+        double dx,
+        double dy,
+        double lonShift) {
+
+        this.key = key;
+        this.projection = projection;
+        this.degrees = projection == null || projection instanceof RotatedPole;
+        this.nx = gds.getNx();
+        this.ny = gds.getNy();
+
+        int scanMode = gds.getScanMode();
+        if (projection instanceof RotatedPole) {
+            // The first grid point of a rotated lon/lat grid is already in rotated coordinates.
+            this.x1 = gds.getLo1();
+            this.y1 = gds.getLa1();
+        }
+        else {
+            double[] xy = new double[2];
+            project(gds.getLa1(), gds.getLo1(), xy);
+            this.x1 = xy[0] + lonShift;
+            this.y1 = xy[1];
+        }
+        this.dx = (scanMode & SCAN_I_NEGATIVE) != 0 ? -dx : dx;
+        this.dy = (scanMode & SCAN_J_POSITIVE) != 0 ? dy : -dy;
+    }
+
+    /**
+     * Convert a grid increment to the units of the projection: degrees or kilometers.
+     */
+    private static double increment(Grib2GDSVariables gds, float value) {
+        return "m".equals(gds.getGridUnits()) ? value / 1000.0 : value;
+    }
+
+    /**
+     * Returns the projection for the specified grid definition, or throws IllegalArgumentException if the grid
+     * definition template or scan mode is not supported.
+     */
+    static GridProjection forGds(Grib2GDSVariables gds) {
+        if ((gds.getScanMode() & (SCAN_J_CONSECUTIVE | SCAN_ALTERNATING)) != 0) {
+            throw new IllegalArgumentException("cannot regrid grid having scan mode " + gds.getScanMode());
+        }
+        final int gridTemplate = gds.getGdtn();
+        final double dx = increment(gds, gds.getDx());
+        final double dy = increment(gds, gds.getDy());
+        final String key = String.format(
+            Locale.ROOT,
+            "%d:%d,%d:%d:%s,%s:%s,%s:%s,%s,%s,%s:%s,%s:%d",
+            gridTemplate, gds.getNx(), gds.getNy(), gds.getScanMode(),
+            gds.getLo1(), gds.getLa1(), dx, dy,
+            gds.getLaD(), gds.getLoV(), gds.getLatin1(), gds.getLatin2(),
+            gds.getSpLon(), gds.getSpLat(), gds.getProjectionFlag());
+
+        switch (gridTemplate) {
+            case 0:  // Template 3.0: lon/lat
+                return new GridProjection(key, null, gds, dx, dy);
+            case 1:  // Template 3.1: rotated lon/lat
+                if (gds.getRotationAngle() != 0) {
+                    throw new IllegalArgumentException(
+                        "cannot regrid rotated lon/lat grid having rotation angle " + gds.getRotationAngle());
+                }
+                if (gds.getSpLat() == -90) {
+                    // The south pole is not displaced, so the rotation is only a shift in longitude. RotatedPole
+                    // is singular for this case, so treat the grid as a regular lon/lat grid.
+                    return new GridProjection(key, null, gds, dx, dy, gds.getSpLon());
+                }
+                return new GridProjection(key, new RotatedPole(-gds.getSpLat(), gds.getSpLon() + 180), gds, dx, dy);
+            case 10:  // Template 3.10: Mercator
+                return new GridProjection(key, new Mercator(gds.getLo1(), gds.getLaD()), gds, dx, dy);
+            case 20:  // Template 3.20: polar stereographic
+                boolean south = (gds.getProjectionFlag() & SOUTH_POLE_CENTER) != 0;
+                double scale = (1 + Math.sin(Math.toRadians(Math.abs(gds.getLaD())))) / 2;
+                return new GridProjection(key, new Stereographic(south ? -90 : 90, gds.getLoV(), scale), gds, dx, dy);
+            case 30:  // Template 3.30: Lambert conformal
+                LambertConformal lambert =
+                    new LambertConformal(gds.getLatin1(), gds.getLoV(), gds.getLatin1(), gds.getLatin2());
+                return new GridProjection(key, lambert, gds, dx, dy);
+            default:
+                throw new IllegalArgumentException("cannot regrid grid definition template 3." + gridTemplate);
+        }
+    }
+
+    private void project(double lat, double lon, double[] xy) {
+        if (projection == null) {
+            xy[0] = lon;
+            xy[1] = lat;
+        }
+        else {
+            ProjectionPoint p = projection.latLonToProj(new LatLonPointImpl(lat, lon));
+            xy[0] = p.getX();
+            xy[1] = p.getY();
+        }
+    }
+
+    /**
+     * Returns true if the grid's rows span the entire globe, so that interpolation wraps around from the last
+     * column to the first.
+     */
+    boolean isWrapped() {
+        return degrees && Math.abs(Math.abs(dx) * nx - 360) < Math.abs(dx) / 2;
+    }
+
+    /**
+     * Store into ij the fractional grid position of the specified lon/lat point. The position may lie outside
+     * the bounds of the grid.
+     */
+    void locate(double lat, double lon, double[] ij) {
+        project(lat, lon, ij);
+        double x = ij[0] - x1;
+        if (degrees) {
+            // Normalize longitude distance to be in the direction of the scan.
+            x = dx > 0 ? x % 360 : -(-x % 360);
+            if (x * dx < 0) {
+                x += dx > 0 ? 360 : -360;
+            }
+        }
+        ij[0] = x / dx;
+        ij[1] = (ij[1] - y1) / dy;
+    }
+
+    /**
+     * A string that uniquely identifies this grid, suitable for use as a cache key.
+     */
+    String key() {
+        return key;
+    }
+
+    @Override public String toString() {
+        return key;
+    }
+}
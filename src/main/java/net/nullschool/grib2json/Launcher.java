@@ -18,11 +18,21 @@ import java.util.*;
  *
  * Execution shim for the grib2json utility. Parses command line options and invokes the {@link Grib2Json} converter.
  *
+ * Startup time matters for short conversions, so nothing beyond option parsing is loaded until the run is known
+ * to need it: --help and usage errors finish without loading the logging backend or the decoder classes. Every
+ * conversion still initializes logback, even without --verbose, because the netCDF-Java decoder obtains its slf4j
+ * loggers when its classes load; the backend is then stopped before anything is logged.
+ *
  * @author Cameron Beccario
  */
 class Launcher {
 
-    private static final Logger log = LoggerFactory.getLogger(Launcher.class);
+    /**
+     * Holder for the logger, so that the logging backend initializes on first use rather than when Launcher loads.
+     */
+    private static final class Log {
+        static final Logger log = LoggerFactory.getLogger(Launcher.class);
+    }
 
     private static void printUsage() {
         System.out.println(CliFactory.createCli(Options.class).getHelpMessage());
@@ -48,31 +58,97 @@ class Launcher {
         List<Options> groups = new ArrayList<>();
         for (String line : Files.readAllLines(recipe.toPath(), Charset.forName("UTF-8"))) {
             String[] args = merge(splitArgs(line), mainArgs);
-            log.info(Arrays.toString(args));
+            Log.log.info(Arrays.toString(args));
             groups.add(CliFactory.parseArguments(Options.class, args));
         }
         return groups;
     }
 
+    /**
+     * Throws IllegalArgumentException if the options combine modes that cannot be used together, rather than
+     * silently ignoring some of them.
+     */
+    static void checkModes(Options options, List<File> files) {
+        boolean stdin = "-".equals(files.get(0).getPath());
+        if (options.getPyramid() != null && (stdin || options.getWatch() || options.getAggregate())) {
+            throw new IllegalArgumentException("--pyramid cannot be combined with --watch, --aggregate, or stdin");
+        }
+        if (options.getPyramid() != null && (options.isMaskMissing() || options.isNdjson())) {
+            throw new IllegalArgumentException(
+                "--pyramid writes its own tile format and cannot be combined with --mask or --ndjson");
+        }
+        if (options.getWatch() && (files.size() > 1 || options.getAggregate())) {
+            throw new IllegalArgumentException("--watch accepts a single FILE and cannot be combined with --aggregate");
+        }
+        if (stdin && (files.size() > 1 || options.getWatch() || options.getAggregate())) {
+            throw new IllegalArgumentException(
+                "- (stdin) must be the only FILE and cannot be combined with --watch or --aggregate");
+        }
+    }
+
+    /**
+     * Throws IllegalArgumentException if more than one option group of a --watch or stdin conversion writes to
+     * stdout. Those modes keep every group's generator open while messages arrive, so the groups' records would
+     * interleave, and the first group to finish would close stdout for the others.
+     */
+    static void checkOutputs(List<Options> optionGroups, List<File> files) {
+        boolean stdin = "-".equals(files.get(0).getPath());
+        int toStdout = 0;
+        for (Options group : optionGroups) {
+            if ((stdin || group.getWatch()) && group.getOutput() == null) {
+                toStdout++;
+            }
+        }
+        if (toStdout > 1) {
+            throw new IllegalArgumentException(
+                "With --watch or - (stdin), at most one --recipe line may write to stdout; specify -o for the others");
+        }
+    }
+
     public static void main(String[] args) {
         try {
             Options options = CliFactory.parseArguments(Options.class, args);
-            if (options.getShowHelp() || options.getFile() == null) {
+            List<File> files = options.getFiles();
+            if (options.getShowHelp() || files == null || files.isEmpty()) {
                 printUsage();
                 System.exit(options.getShowHelp() ? 0 : 1);
                 return;
             }
 
-            LoggerContext lc = (LoggerContext) LoggerFactory.getILoggerFactory();
             if (!options.getEnableLogging()) {
-                lc.stop();
+                // The netCDF-Java decoder logs through slf4j, so the backend is initialized here (or when the decoder
+                // loads) whether or not logging is enabled; stopping it only keeps it quiet.
+                ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
             }
 
             List<Options> optionGroups = options.getRecipe() != null ?
                 readRecipeFile(args, options.getRecipe()) :
                 Collections.singletonList(options);
+            for (Options group : optionGroups) {
+                checkModes(group, files);
+            }
+            checkOutputs(optionGroups, files);
 
-            new Grib2Json(options.getFile(), optionGroups).write();
+            // Loading the management beans costs startup time, so take the snapshot only if it will be reported.
+            RuntimeStats runtimeStats = options.getEnableLogging() ? new RuntimeStats() : null;
+            if ("-".equals(files.get(0).getPath())) {
+                new GribStreamReader(System.in, optionGroups).write();
+            }
+            else if (options.getWatch()) {
+                new GribWatcher(files.get(0), optionGroups, options.getWatchTimeout() * 1000L).write();
+            }
+            else if (options.getAggregate()) {
+                new EnsembleAggregator(files, optionGroups).write();
+            }
+            else if (files.size() > 1) {
+                throw new IllegalArgumentException("Multiple input files require --aggregate");
+            }
+            else {
+                new Grib2Json(files.get(0), optionGroups).write();
+            }
+            if (runtimeStats != null) {
+                Log.log.info(runtimeStats.report());
+            }
         }
         catch (JewelRuntimeException t) {
             printUsage();
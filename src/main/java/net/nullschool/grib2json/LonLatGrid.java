@@ -0,0 +1,91 @@
+package net.nullschool.grib2json;
+
+import java.util.Locale;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * A regular lon/lat grid, scanned west to east then north to south (GRIB scan mode 0). Used as the target of
+ * regridding. The grid is specified on the command line as "lo1,la1,lo2,la2,dx,dy", for example the 1º global
+ * grid "0,90,359,-90,1,1".
+ */
+final class LonLatGrid {
+
+    final double lo1;  // longitude of first grid point
+    final double la1;  // latitude of first grid point
+    final double dx;   // i direction increment
+    final double dy;   // j direction increment
+    final int nx;      // Number of points on x-axis or parallel
+    final int ny;      // Number of points on y-axis or meridian
+
+    LonLatGrid(double lo1, double la1, double lo2, double la2, double dx, double dy) {
+        if (!(dx > 0 && dy > 0)) {
+            throw new IllegalArgumentException("grid increments must be positive: " + dx + "," + dy);
+        }
+        if (la2 > la1) {
+            throw new IllegalArgumentException("grid must be scanned north to south: " + la1 + "," + la2);
+        }
+        double width = lo2 - lo1;
+        if (width < 0) {
+            width += 360;
+        }
+        this.lo1 = lo1;
+        this.la1 = la1;
+        this.dx = dx;
+        this.dy = dy;
+        this.nx = (int)Math.round(width / dx) + 1;
+        this.ny = (int)Math.round((la1 - la2) / dy) + 1;
+    }
+
+    /**
+     * Parse a grid of the form "lo1,la1,lo2,la2,dx,dy".
+     */
+    static LonLatGrid parse(String spec) {
+        String[] parts = spec.split(",");
+        if (parts.length != 6) {
+            throw new IllegalArgumentException("expected regrid target of the form lo1,la1,lo2,la2,dx,dy: " + spec);
+        }
+        double[] values = new double[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                values[i] = Double.parseDouble(parts[i].trim());
+            }
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid regrid target: " + spec);
+        }
+        return new LonLatGrid(values[0], values[1], values[2], values[3], values[4], values[5]);
+    }
+
+    int getNumberPoints() {
+        return nx * ny;
+    }
+
+    double lo2() {
+        return lo1 + (nx - 1) * dx;
+    }
+
+    double la2() {
+        return la1 - (ny - 1) * dy;
+    }
+
+    double lon(int i) {
+        return lo1 + i * dx;
+    }
+
+    double lat(int j) {
+        return la1 - j * dy;
+    }
+
+    /**
+     * A string that uniquely identifies this grid, suitable for use as a cache key.
+     */
+    String key() {
+        return String.format(Locale.ROOT, "%s,%s,%s,%s,%d,%d", lo1, la1, dx, dy, nx, ny);
+    }
+
+    @Override public String toString() {
+        return key();
+    }
+}
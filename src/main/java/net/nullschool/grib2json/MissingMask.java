@@ -0,0 +1,122 @@
+package net.nullschool.grib2json;
+
+import javax.json.stream.JsonGenerator;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * A run-length encoding of the missing (NaN) points of a record's data. With --mask, a record's data is written as
+ * a mask followed by only the valid values, rather than as a "NaN" (or, for OSCAR, a null) for every missing point:
+ *
+ * <pre>
+ *     "mask": {"id": 0, "runs": [m, v, m, v, ...]},
+ *     "data": [ ...valid values... ]
+ * </pre>
+ *
+ * The runs alternate between missing and valid points, starting with missing, so the first run may be 0. Ocean and
+ * regional products typically have the same mask for every record, so a mask already written to the same output is
+ * referenced by its id alone: "mask": {"id": 0}. Ids are assigned in order of first appearance in the output.
+ *
+ * NDJSON lines must each be usable on their own, so masks are not shared there: every record's mask is written in
+ * full, as "mask": {"runs": [...]}, without an id.
+ */
+final class MissingMask {
+
+    private static final Map<JsonGenerator, Map<MissingMask, Integer>> written = new WeakHashMap<>();
+
+    private final int[] runs;
+    private final int validCount;
+
+    private MissingMask(int[] runs, int validCount) {
+        this.runs = runs;
+        this.validCount = validCount;
+    }
+
+    /**
+     * Returns the mask of the missing points of the data.
+     */
+    static MissingMask of(float[] data) {
+        int[] runs = new int[16];
+        int n = 0, validCount = 0, start = 0;
+        boolean missing = true;
+        for (int i = 0; i <= data.length; i++) {
+            if (i == data.length || Float.isNaN(data[i]) != missing) {
+                if (n == runs.length) {
+                    runs = Arrays.copyOf(runs, n * 2);
+                }
+                runs[n++] = i - start;
+                if (!missing) {
+                    validCount += i - start;
+                }
+                start = i;
+                missing = !missing;
+            }
+        }
+        return new MissingMask(Arrays.copyOf(runs, n), validCount);
+    }
+
+    int[] getRuns() {
+        return runs.clone();
+    }
+
+    int getValidCount() {
+        return validCount;
+    }
+
+    /**
+     * Returns the id of this mask in the output of the generator, and whether the mask has already been written
+     * there as the sign: ids of new masks are returned as -(id + 1).
+     */
+    private int register(JsonGenerator jg) {
+        synchronized (written) {
+            Map<MissingMask, Integer> ids = written.get(jg);
+            if (ids == null) {
+                written.put(jg, ids = new HashMap<>());
+            }
+            Integer id = ids.get(this);
+            if (id != null) {
+                return id;
+            }
+            ids.put(this, ids.size());
+            return -ids.size();
+        }
+    }
+
+    /**
+     * Write the mask and the valid values of the data as the "mask" and "data" members of the current object. If
+     * shared, a mask already written to the generator is written as its id alone.
+     */
+    static void write(JsonGenerator jg, float[] data, FloatArrayEncoder encoder, boolean shared) {
+        MissingMask mask = of(data);
+        int id = shared ? mask.register(jg) : -1;
+        jg.writeStartObject("mask");
+        if (shared) {
+            jg.write("id", id < 0 ? -id - 1 : id);
+        }
+        if (id < 0) {
+            jg.writeStartArray("runs");
+            for (int run : mask.runs) {
+                jg.write(run);
+            }
+            jg.writeEnd();
+        }
+        jg.writeEnd();
+
+        jg.writeStartArray("data");
+        encoder.write(jg, data, true);
+        jg.writeEnd();
+    }
+
+    @Override public boolean equals(Object that) {
+        return that instanceof MissingMask && Arrays.equals(this.runs, ((MissingMask)that).runs);
+    }
+
+    @Override public int hashCode() {
+        return Arrays.hashCode(runs);
+    }
+}
@@ -0,0 +1,220 @@
+package net.nullschool.grib2json;
+
+import javax.json.Json;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerationException;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collections;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * A JsonGenerator that produces newline delimited Json (NDJSON): each top-level object is written compactly on its
+ * own line and flushed as soon as it is complete, so consumers can process records as they arrive and split the
+ * output by line. An outermost array, as written by the converters, is elided.
+ *
+ * A JsonGenerator can produce only one Json text, so each top-level object is written by its own generator onto
+ * the shared output stream.
+ */
+final class NdjsonGenerator implements JsonGenerator {
+
+    private static final JsonGeneratorFactory factory =
+        Json.createGeneratorFactory(Collections.<String, Object>emptyMap());
+
+    private final OutputStream out;
+    private final OutputStream shared;  // view of out that the per-record generators cannot close
+    private JsonGenerator current;      // generator of the record being written, or null between records
+    private int depth;                  // nesting depth within the current record
+
+    NdjsonGenerator(final OutputStream out) {
+        this.out = out;
+        this.shared = new FilterOutputStream(out) {
+            @Override public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+
+    private JsonGenerator current() {
+        if (current == null) {
+            throw new JsonGenerationException("NDJSON records must be objects");
+        }
+        return current;
+    }
+
+    private JsonGenerator start() {
+        if (current == null) {
+            current = factory.createGenerator(shared);
+        }
+        depth++;
+        return current;
+    }
+
+    @Override public JsonGenerator writeStartObject() {
+        start().writeStartObject();
+        return this;
+    }
+
+    @Override public JsonGenerator writeStartObject(String name) {
+        current().writeStartObject(name);
+        depth++;
+        return this;
+    }
+
+    @Override public JsonGenerator writeStartArray() {
+        if (current != null) {
+            current.writeStartArray();
+            depth++;
+        }
+        // otherwise, this is the outermost array, which is elided
+        return this;
+    }
+
+    @Override public JsonGenerator writeStartArray(String name) {
+        current().writeStartArray(name);
+        depth++;
+        return this;
+    }
+
+    @Override public JsonGenerator writeEnd() {
+        if (current == null) {
+            return this;  // end of the outermost array
+        }
+        current.writeEnd();
+        if (--depth == 0) {
+            current.close();
+            current = null;
+            try {
+                out.write('\n');
+                out.flush();
+            }
+            catch (IOException e) {
+                throw new JsonGenerationException("I/O error while writing NDJSON", e);
+            }
+        }
+        return this;
+    }
+
+    @Override public JsonGenerator write(String name, JsonValue value) {
+        current().write(name, value);
+        return this;
+    }
+
+    @Override public JsonGenerator write(String name, String value) {
+        current().write(name, value);
+        return this;
+    }
+
+    @Override public JsonGenerator write(String name, BigInteger value) {
+        current().write(name, value);
+        return this;
+    }
+
+    @Override public JsonGenerator write(String name, BigDecimal value) {
+        current().write(name, value);
+        return this;
+    }
+
+    @Override public JsonGenerator write(String name, int value) {
+        current().write(name, value);
+        return this;
+    }
+
+    @Override public JsonGenerator write(String name, long value) {
+        current().write(name, value);
+        return this;
+    }
+
+    @Override public JsonGenerator write(String name, double value) {
+        current().write(name, value);
+        return this;
+    }
+
+    @Override public JsonGenerator write(String name, boolean value) {
+        current().write(name, value);
+        return this;
+    }
+
+    @Override public JsonGenerator writeNull(String name) {
+        current().writeNull(name);
+        return this;
+    }
+
+    @Override public JsonGenerator write(JsonValue value) {
+        current().write(value);
+        return this;
+    }
+
+    @Override public JsonGenerator write(String value) {
+        current().write(value);
+        return this;
+    }
+
+    @Override public JsonGenerator write(BigDecimal value) {
+        current().write(value);
+        return this;
+    }
+
+    @Override public JsonGenerator write(BigInteger value) {
+        current().write(value);
+        return this;
+    }
+
+    @Override public JsonGenerator write(int value) {
+        current().write(value);
+        return this;
+    }
+
+    @Override public JsonGenerator write(long value) {
+        current().write(value);
+        return this;
+    }
+
+    @Override public JsonGenerator write(double value) {
+        current().write(value);
+        return this;
+    }
+
+    @Override public JsonGenerator write(boolean value) {
+        current().write(value);
+        return this;
+    }
+
+    @Override public JsonGenerator writeNull() {
+        current().writeNull();
+        return this;
+    }
+
+    @Override public void close() {
+        if (current != null) {
+            throw new JsonGenerationException("Incomplete NDJSON record");
+        }
+        try {
+            out.close();
+        }
+        catch (IOException e) {
+            throw new JsonGenerationException("I/O error while closing NDJSON output", e);
+        }
+    }
+
+    @Override public void flush() {
+        try {
+            if (current != null) {
+                current.flush();
+            }
+            out.flush();
+        }
+        catch (IOException e) {
+            throw new JsonGenerationException("I/O error while flushing NDJSON output", e);
+        }
+    }
+}
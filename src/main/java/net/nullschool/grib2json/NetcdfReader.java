@@ -0,0 +1,80 @@
+package net.nullschool.grib2json;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ucar.nc2.NetcdfFile;
+
+import javax.json.stream.JsonGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * Reads OSCAR records from a NetCDF file. See {@link OscarRecordWriter}.
+ */
+final class NetcdfReader implements RecordReader {
+
+    private static final Logger log = LoggerFactory.getLogger(NetcdfReader.class);
+
+    private final NetcdfFile netcdfFile;
+
+    private NetcdfReader(NetcdfFile netcdfFile) {
+        this.netcdfFile = netcdfFile;
+    }
+
+    static NetcdfReader open(File file) throws IOException {
+        NetcdfFile netcdfFile = NetcdfFile.open(file.getPath());
+        log.info("File contents:\n{}", netcdfFile);
+        return new NetcdfReader(netcdfFile);
+    }
+
+    private static DecodedRecord decoded(final OscarRecordWriter rw) {
+        return new DecodedRecord() {
+            @Override public void writeHeader(RecordStats stats) {
+                rw.writeHeader(stats);
+            }
+
+            @Override public float[] readData() throws IOException {
+                return rw.readData();
+            }
+
+            @Override public int getNx() {
+                return rw.getNx();
+            }
+
+            @Override public int getNy() {
+                return rw.getNy();
+            }
+
+            @Override public void writeRecord() throws IOException {
+                rw.writeRecord();
+            }
+        };
+    }
+
+    @Override public void check(Options options) {
+    }
+
+    /**
+     * Returns the u and v records of the file. The filter options do not apply to OSCAR files.
+     */
+    @Override public List<DecodedRecord> select(JsonGenerator jg, Options options) throws IOException {
+        int days = netcdfFile.findVariable("time").readScalarInt();
+        DateTime date = new DateTime(1992, 10, 5, 0, 0, DateTimeZone.UTC).plusDays(days);
+        double depth = netcdfFile.findVariable("depth").readScalarDouble();
+
+        return Arrays.asList(
+            decoded(new OscarRecordWriter(jg, netcdfFile.findVariable("u"), date, depth, options)),
+            decoded(new OscarRecordWriter(jg, netcdfFile.findVariable("v"), date, depth, options)));
+    }
+
+    @Override public void close() throws IOException {
+        netcdfFile.close();
+    }
+}
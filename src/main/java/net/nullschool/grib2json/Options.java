@@ -3,6 +3,7 @@ package net.nullschool.grib2json;
 import com.lexicalscope.jewel.cli.*;
 
 import java.io.File;
+import java.util.List;
 
 
 /**
@@ -24,9 +25,28 @@ public interface Options {
     @Option(longName="data", shortName="d", description="print GRIB record data")
     boolean getPrintData();
 
+    @Option(
+        longName="mask",
+        description="write record data as a run-length mask of missing points followed by only the valid values")
+    boolean isMaskMissing();
+
+    @Option(longName="stats", shortName="s", description="add statistics of record data to each header")
+    boolean getPrintStats();
+
+    @Option(
+        longName="stats.histogram",
+        description="add a histogram of record data to the statistics, with bins spanning \"lo,hi,bins\"",
+        defaultToNull=true)
+    String getStatsHistogram();
+
     @Option(longName="compact", shortName="c", description="enable compact Json formatting")
     boolean isCompactFormat();
 
+    @Option(
+        longName="ndjson",
+        description="write newline delimited Json: each record compactly on its own line, flushed when complete")
+    boolean isNdjson();
+
     @Option(longName="verbose", shortName="v", description="enable logging to stdout")
     boolean getEnableLogging();
 
@@ -38,7 +58,7 @@ public interface Options {
     File getOutput();
 
     @Unparsed(name="FILE", defaultToNull=true)
-    File getFile();
+    List<File> getFiles();
 
     // ============================
     // options to perform filtering
@@ -79,4 +99,76 @@ public interface Options {
         description="a file containing a batch of filter options: fd, fc, fp, fs, fv, and o",
         defaultToNull=true)
     File getRecipe();
+
+    // ============================
+    // options to perform regridding
+
+    @Option(
+        longName="regrid",
+        description="regrid records to the regular lon/lat grid \"lo1,la1,lo2,la2,dx,dy\"",
+        defaultToNull=true)
+    String getRegrid();
+
+    @Option(
+        longName="regrid.cache",
+        description="a directory in which to store precomputed regridding weights",
+        defaultToNull=true)
+    File getRegridCache();
+
+    // ============================
+    // options to produce a tile pyramid
+
+    @Option(
+        longName="pyramid",
+        description="write a multi-resolution tile pyramid of record data to the specified directory",
+        defaultToNull=true)
+    File getPyramid();
+
+    @Option(
+        longName="pyramid.levels",
+        description="number of downsampled pyramid levels, each half the resolution of the last (default 3)",
+        defaultValue="3")
+    int getPyramidLevels();
+
+    @Option(
+        longName="pyramid.reducer",
+        description="method of downsampling pyramid levels: mean, max, or nearest (default mean)",
+        defaultValue="mean")
+    String getPyramidReducer();
+
+    @Option(
+        longName="pyramid.tile",
+        description="width and height of each pyramid tile, in points (default 256)",
+        defaultValue="256")
+    int getPyramidTileSize();
+
+    // ============================
+    // options to aggregate ensembles
+
+    @Option(
+        longName="aggregate",
+        shortName="a",
+        description="aggregate matching records of all FILEs into ensemble mean, min, max, and stddev")
+    boolean getAggregate();
+
+    @Option(
+        longName="aggregate.percentiles",
+        description="also aggregate these ensemble percentiles, for example \"10,50,90\"",
+        defaultToNull=true)
+    String getAggregatePercentiles();
+
+    // ============================
+    // options to follow a growing file
+
+    @Option(
+        longName="watch",
+        shortName="w",
+        description="convert messages as they are appended to FILE, or to the files of directory FILE")
+    boolean getWatch();
+
+    @Option(
+        longName="watch.timeout",
+        description="stop watching after this many seconds without change (default 30)",
+        defaultValue="30")
+    int getWatchTimeout();
 }
@@ -51,7 +51,7 @@ final class OscarRecordWriter extends AbstractRecordWriter {
     }
 
     private void writeIndicator() {
-        write("discipline", OCEAN_PRODUCTS, getDisciplineName(OCEAN_PRODUCTS));
+        write("discipline", OCEAN_PRODUCTS, names ? getDisciplineName(OCEAN_PRODUCTS) : null);
     }
 
     private void writeIdentification() {
@@ -74,16 +74,19 @@ final class OscarRecordWriter extends AbstractRecordWriter {
         final int paramNumber = variableToParam(var);
         final int surfaceType = 160;  // Depth below sea level
 
-        write("parameterCategory", 1, getCategoryName(OCEAN_PRODUCTS, paramCategory));
-        write("parameterNumber", paramNumber, getParameterName(OCEAN_PRODUCTS, paramCategory, paramNumber));
+        write("parameterCategory", 1, names ? getCategoryName(OCEAN_PRODUCTS, paramCategory) : null);
+        write(
+            "parameterNumber",
+            paramNumber,
+            names ? getParameterName(OCEAN_PRODUCTS, paramCategory, paramNumber) : null);
         write("parameterUnit", getParameterUnit(OCEAN_PRODUCTS, paramCategory, paramNumber));
         write("forecastTime", 0);
-        write("surface1Type", surfaceType, codeTable4_5(surfaceType));
+        write("surface1Type", surfaceType, names ? codeTable4_5(surfaceType) : null);
         write("surface1Value", depth);
     }
 
     private void writeGridShape() {
-        write("shape", 0, codeTable3_2(0));
+        write("shape", 0, names ? codeTable3_2(0) : null);
     }
 
     private void writeGridSize() {
@@ -111,12 +114,15 @@ final class OscarRecordWriter extends AbstractRecordWriter {
     /**
      * Write the record's header as a Json object: "header": { ... }
      */
-    private void writeHeader() {
+    void writeHeader(RecordStats stats) {
         jg.writeStartObject("header");
         writeIndicator();
         writeIdentification();
         writeProduct();
         writeGridDefinition();
+        if (stats != null) {
+            stats.write(jg);
+        }
         jg.writeEnd();
     }
 
@@ -127,35 +133,83 @@ final class OscarRecordWriter extends AbstractRecordWriter {
         return Math.round(value * denominator) / denominator;
     }
 
+    private Array readArray() throws IOException {
+        try {
+            return var.read(RANGE).reduce();
+        }
+        catch (InvalidRangeException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the data as rounded for output, row by row.
+     */
+    private float[] toValues(Array data) {
+        float[] values = new float[(int)data.getSize()];
+        IndexIterator ii = data.getIndexIterator();
+        for (int i = 0; ii.hasNext(); i++) {
+            float value = ii.getFloatNext();
+            values[i] = Float.isNaN(value) ? value : round(value, 50);
+        }
+        return values;
+    }
+
+    /**
+     * Decode the record's data as rounded for output, row by row.
+     */
+    float[] readData() throws IOException {
+        return toValues(readArray());
+    }
+
+    int getNx() {
+        return NX;
+    }
+
+    int getNy() {
+        return NY;
+    }
+
+    /**
+     * Accumulate statistics of the data, as rounded for output.
+     */
+    private RecordStats computeStats(Array data) {
+        RecordStats stats = new RecordStats(options.getStatsHistogram());
+        IndexIterator ii = data.getIndexIterator();
+        while (ii.hasNext()) {
+            float value = ii.getFloatNext();
+            stats.add(Float.isNaN(value) ? value : round(value, 50));
+        }
+        return stats;
+    }
+
     /**
      * Write the record's data as a Json array: "data": [ ... ]
      */
-    private void writeData() throws IOException {
-        if (!options.getPrintData()) {
+    private void writeData(Array data) {
+        if (options.isMaskMissing()) {
+            writeData(toValues(data));
             return;
         }
-        try {
-            jg.writeStartArray("data");
-            Array data = var.read(RANGE).reduce();
-            IndexIterator ii = data.getIndexIterator();
-            while (ii.hasNext()) {
-                float value = ii.getFloatNext();
-                jg.write(Float.isNaN(value) ? JsonValue.NULL : new FloatValue(round(value, 50)));
-            }
-            jg.writeEnd();
-        }
-        catch (InvalidRangeException e) {
-            throw new RuntimeException(e);
+        jg.writeStartArray("data");
+        IndexIterator ii = data.getIndexIterator();
+        while (ii.hasNext()) {
+            float value = ii.getFloatNext();
+            jg.write(Float.isNaN(value) ? JsonValue.NULL : new FloatValue(round(value, 50)));
         }
+        jg.writeEnd();
     }
 
     /**
      * Write the record as a Json object: { "header": { ... }, "data": [ ... ] }
      */
     void writeRecord() throws IOException {
+        Array data = options.getPrintData() || options.getPrintStats() ? readArray() : null;
         jg.writeStartObject();
-        writeHeader();
-        writeData();
+        writeHeader(data != null && options.getPrintStats() ? computeStats(data) : null);
+        if (data != null && options.getPrintData()) {
+            writeData(data);
+        }
         jg.writeEnd();
     }
 }
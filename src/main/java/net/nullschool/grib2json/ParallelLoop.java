@@ -0,0 +1,62 @@
+package net.nullschool.grib2json;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * A loop over the index range [0, length) that is split into chunks and run on a shared fork-join pool. Subclasses
+ * implement {@link #compute(int, int)} to process one chunk. Small ranges run directly on the calling thread.
+ */
+abstract class ParallelLoop {
+
+    static final ForkJoinPool POOL = new ForkJoinPool();
+
+    private final int threshold;
+
+    /**
+     * @param threshold the largest range processed as a single chunk.
+     */
+    protected ParallelLoop(int threshold) {
+        this.threshold = Math.max(1, threshold);
+    }
+
+    /**
+     * Process the indices [from, to).
+     */
+    protected abstract void compute(int from, int to);
+
+    private final class Task extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        Task(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override protected void compute() {
+            if (to - from <= threshold) {
+                ParallelLoop.this.compute(from, to);
+            }
+            else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Task(from, mid), new Task(mid, to));
+            }
+        }
+    }
+
+    /**
+     * Run the loop over [0, length), returning when all chunks have completed.
+     */
+    void run(int length) {
+        if (length <= threshold) {
+            compute(0, length);
+        }
+        else {
+            POOL.invoke(new Task(0, length));
+        }
+    }
+}
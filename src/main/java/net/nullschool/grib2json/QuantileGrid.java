@@ -0,0 +1,142 @@
+package net.nullschool.grib2json;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * Streaming estimate of a quantile at every point of a grid, using the P² algorithm of Jain and Chlamtac
+ * ("The P² algorithm for dynamic calculation of quantiles and histograms without storing observations", 1985).
+ * Each point keeps five marker heights and positions regardless of how many values are added, so memory is
+ * independent of the number of ensemble members. While a point has five or fewer values, the quantile is exact.
+ */
+final class QuantileGrid {
+
+    private static final int M = 5;  // markers per point
+
+    private final double p;
+    private final double[] increments;  // desired marker position increments, per value added
+    private final float[] heights;      // M marker heights per point
+    private final int[] positions;      // M marker positions (1-based) per point
+    private final int[] counts;
+
+    /**
+     * @param p the quantile to estimate, in [0, 1].
+     * @param n the number of points in the grid.
+     */
+    QuantileGrid(double p, int n) {
+        if (!(p >= 0 && p <= 1)) {
+            throw new IllegalArgumentException("invalid quantile: " + p);
+        }
+        this.p = p;
+        this.increments = new double[] {0, p / 2, p, (1 + p) / 2, 1};
+        this.heights = new float[n * M];
+        this.positions = new int[n * M];
+        this.counts = new int[n];
+    }
+
+    double getQuantile() {
+        return p;
+    }
+
+    /**
+     * Add a value for the specified grid point. NaN values are ignored.
+     */
+    void add(int point, float x) {
+        if (Float.isNaN(x)) {
+            return;
+        }
+        final int base = point * M;
+        final int count = ++counts[point];
+        final float[] q = heights;
+        final int[] n = positions;
+
+        if (count <= M) {
+            // Insertion sort of the first M values.
+            int i = base + count - 1;
+            while (i > base && q[i - 1] > x) {
+                q[i] = q[i - 1];
+                i--;
+            }
+            q[i] = x;
+            if (count == M) {
+                for (int j = 0; j < M; j++) {
+                    n[base + j] = j + 1;
+                }
+            }
+            return;
+        }
+
+        // Find the cell containing x, extending the extreme markers if necessary.
+        int k;
+        if (x < q[base]) {
+            q[base] = x;
+            k = 0;
+        }
+        else if (x >= q[base + 4]) {
+            q[base + 4] = x;
+            k = 3;
+        }
+        else {
+            k = 0;
+            while (k < 3 && x >= q[base + k + 1]) {
+                k++;
+            }
+        }
+        for (int j = k + 1; j < M; j++) {
+            n[base + j]++;
+        }
+
+        // Adjust the middle markers toward their desired positions.
+        for (int j = 1; j < M - 1; j++) {
+            int i = base + j;
+            double d = 1 + (count - 1) * increments[j] - n[i];
+            if ((d >= 1 && n[i + 1] - n[i] > 1) || (d <= -1 && n[i - 1] - n[i] < -1)) {
+                int s = d > 0 ? 1 : -1;
+                double qp = parabolic(q, n, i, s);
+                if (q[i - 1] < qp && qp < q[i + 1]) {
+                    q[i] = (float)qp;
+                }
+                else {
+                    q[i] = q[i] + s * (q[i + s] - q[i]) / (float)(n[i + s] - n[i]);
+                }
+                n[i] += s;
+            }
+        }
+    }
+
+    private static double parabolic(float[] q, int[] n, int i, int s) {
+        double a = (n[i] - n[i - 1] + s) * (double)(q[i + 1] - q[i]) / (n[i + 1] - n[i]);
+        double b = (n[i + 1] - n[i] - s) * (double)(q[i] - q[i - 1]) / (n[i] - n[i - 1]);
+        return q[i] + s * (a + b) / (n[i + 1] - n[i - 1]);
+    }
+
+    /**
+     * Returns the estimated quantile at the specified point, or NaN if the point has no values.
+     */
+    float get(int point) {
+        final int count = counts[point];
+        final int base = point * M;
+        if (count == 0) {
+            return Float.NaN;
+        }
+        if (count <= M) {
+            // Exact: linear interpolation between the closest ranks.
+            double rank = p * (count - 1);
+            int lo = (int)Math.floor(rank);
+            int hi = Math.min(lo + 1, count - 1);
+            return (float)(heights[base + lo] + (rank - lo) * (heights[base + hi] - heights[base + lo]));
+        }
+        return heights[base + 2];
+    }
+
+    /**
+     * Returns the estimated quantile at every point.
+     */
+    float[] toArray() {
+        float[] result = new float[counts.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = get(i);
+        }
+        return result;
+    }
+}
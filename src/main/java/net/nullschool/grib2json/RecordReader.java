@@ -0,0 +1,27 @@
+package net.nullschool.grib2json;
+
+import javax.json.stream.JsonGenerator;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * Reads the records of an input file in a particular format. Implementations are chosen by {@link FileFormat#detect}.
+ */
+interface RecordReader extends Closeable {
+
+    /**
+     * Throws IllegalArgumentException if the command line options cannot be applied to this format. Called for
+     * every option group before any output is opened.
+     */
+    void check(Options options);
+
+    /**
+     * Returns the records selected by the command line options, in file order, each writing to the specified
+     * generator.
+     */
+    List<DecodedRecord> select(JsonGenerator jg, Options options) throws IOException;
+}
@@ -0,0 +1,149 @@
+package net.nullschool.grib2json;
+
+import javax.json.stream.JsonGenerator;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * Summary statistics of a record's data, accumulated one value at a time in a single pass: min, max, mean,
+ * (population) standard deviation, NaN count, and optionally a histogram of fixed bins. The mean and variance
+ * are computed with Welford's method to avoid the loss of precision of naive sum-of-squares accumulation.
+ */
+final class RecordStats {
+
+    private long count;
+    private long nanCount;
+    private float min = Float.POSITIVE_INFINITY;
+    private float max = Float.NEGATIVE_INFINITY;
+    private double mean;
+    private double m2;  // sum of squares of differences from the current mean
+
+    private final double lo;
+    private final double hi;
+    private final long[] bins;  // null if no histogram
+    private long under;
+    private long over;
+
+    /**
+     * @param histogram the histogram spec "lo,hi,bins", or null for no histogram.
+     */
+    RecordStats(String histogram) {
+        if (histogram == null) {
+            lo = hi = 0;
+            bins = null;
+            return;
+        }
+        String[] parts = histogram.split(",");
+        try {
+            if (parts.length != 3) {
+                throw new NumberFormatException();
+            }
+            lo = Double.parseDouble(parts[0].trim());
+            hi = Double.parseDouble(parts[1].trim());
+            bins = new long[Integer.parseInt(parts[2].trim())];
+        }
+        catch (NumberFormatException | NegativeArraySizeException e) {
+            throw new IllegalArgumentException("expected histogram of the form lo,hi,bins: " + histogram);
+        }
+        if (!(hi > lo) || bins.length == 0) {
+            throw new IllegalArgumentException("invalid histogram range: " + histogram);
+        }
+    }
+
+    /**
+     * Returns new stats of the specified data, as configured by the command line options.
+     */
+    static RecordStats of(float[] data, Options options) {
+        RecordStats stats = new RecordStats(options.getStatsHistogram());
+        for (float value : data) {
+            stats.add(value);
+        }
+        return stats;
+    }
+
+    /**
+     * Accumulate the specified value.
+     */
+    void add(float value) {
+        if (Float.isNaN(value)) {
+            nanCount++;
+            return;
+        }
+        count++;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+
+        if (bins != null) {
+            if (value < lo) {
+                under++;
+            }
+            else if (value >= hi) {
+                over++;
+            }
+            else {
+                bins[Math.min(bins.length - 1, (int)((value - lo) / (hi - lo) * bins.length))]++;
+            }
+        }
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    long getNanCount() {
+        return nanCount;
+    }
+
+    float getMin() {
+        return count > 0 ? min : Float.NaN;
+    }
+
+    float getMax() {
+        return count > 0 ? max : Float.NaN;
+    }
+
+    double getMean() {
+        return count > 0 ? mean : Double.NaN;
+    }
+
+    double getStddev() {
+        return count > 0 ? Math.sqrt(m2 / count) : Double.NaN;
+    }
+
+    /**
+     * Write the stats as a Json object: "stats": { ... }
+     */
+    void write(JsonGenerator jg) {
+        jg.writeStartObject("stats");
+        jg.write("count", count);
+        jg.write("nanCount", nanCount);
+        if (count > 0) {
+            jg.write("min", new FloatValue(min));
+            jg.write("max", new FloatValue(max));
+            jg.write("mean", new FloatValue((float)getMean()));
+            jg.write("stddev", new FloatValue((float)getStddev()));
+        }
+        if (bins != null) {
+            jg.writeStartObject("histogram");
+            jg.write("lo", lo);
+            jg.write("hi", hi);
+            jg.write("under", under);
+            jg.write("over", over);
+            jg.writeStartArray("bins");
+            for (long bin : bins) {
+                jg.write(bin);
+            }
+            jg.writeEnd();
+            jg.writeEnd();
+        }
+        jg.writeEnd();
+    }
+}
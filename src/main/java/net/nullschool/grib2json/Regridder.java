@@ -0,0 +1,196 @@
+package net.nullschool.grib2json;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * Bilinear interpolation from a source grid to a regular lon/lat grid. Each target point is the weighted sum of
+ * (at most) four source points. The indices and weights are computed once per source/target grid pair and then
+ * reused for every record having that pair, making the application of the weights a simple loop over primitive
+ * arrays.
+ *
+ * Weights are cached in memory for the life of the process and, optionally, in a directory on disk so that
+ * subsequent runs can skip the projection math entirely.
+ */
+final class Regridder {
+
+    private static final Logger log = LoggerFactory.getLogger(Regridder.class);
+
+    private static final int MAGIC = 0x47324a52;  // "G2JR"
+    private static final int CHUNK = 1 << 14;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final ConcurrentMap<String, Regridder> cache = new ConcurrentHashMap<>();
+
+    private final String key;
+    private final int[] indices;    // 4 source indices per target point, or -1 if the target point is off grid
+    private final float[] weights;  // 4 weights per target point
+    private final int sourcePoints;
+
+    private Regridder(String key, int[] indices, float[] weights, int sourcePoints) {
+        this.key = key;
+        this.indices = indices;
+        this.weights = weights;
+        this.sourcePoints = sourcePoints;
+    }
+
+    /**
+     * Compute the interpolation weights from source to target.
+     */
+    static Regridder build(String key, GridProjection source, LonLatGrid target) {
+        final int nx = source.nx, ny = source.ny;
+        final boolean wrapped = source.isWrapped();
+        final int[] indices = new int[target.getNumberPoints() * 4];
+        final float[] weights = new float[indices.length];
+        final double[] ij = new double[2];
+
+        int k = 0;
+        for (int y = 0; y < target.ny; y++) {
+            double lat = target.lat(y);
+            for (int x = 0; x < target.nx; x++, k += 4) {
+                source.locate(lat, target.lon(x), ij);
+                double fi = ij[0], fj = ij[1];
+                int i0 = (int)Math.floor(fi), j0 = (int)Math.floor(fj);
+                int i1 = i0 + 1, j1 = j0 + 1;
+                if (i1 == nx && (wrapped || fi == i0)) {
+                    i1 = wrapped ? 0 : i0;  // wrap around, or target point lies exactly on the last column
+                }
+                if (i0 < 0 || j0 < 0 || i1 >= nx || j0 >= ny || (j1 >= ny && fj > j0)) {
+                    indices[k] = indices[k + 1] = indices[k + 2] = indices[k + 3] = -1;
+                    continue;
+                }
+                j1 = Math.min(j1, ny - 1);  // target point lies exactly on the last row
+                double di = fi - i0, dj = fj - j0;
+                indices[k    ] = j0 * nx + i0;  weights[k    ] = (float)((1 - di) * (1 - dj));
+                indices[k + 1] = j0 * nx + i1;  weights[k + 1] = (float)(di * (1 - dj));
+                indices[k + 2] = j1 * nx + i0;  weights[k + 2] = (float)((1 - di) * dj);
+                indices[k + 3] = j1 * nx + i1;  weights[k + 3] = (float)(di * dj);
+            }
+        }
+        return new Regridder(key, indices, weights, nx * ny);
+    }
+
+    static File cacheFile(File cacheDir, String key) {
+        return new File(cacheDir, String.format("regrid-%08x.bin", key.hashCode()));
+    }
+
+    /**
+     * Read the weights having the specified key from a cache file, returning null if the file holds different
+     * weights or is truncated or malformed.
+     */
+    static Regridder read(File file, String key) throws IOException {
+        long fileLength = file.length();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            int keyLength = in.readInt();
+            if (keyLength < 0 || keyLength > fileLength) {
+                return null;
+            }
+            byte[] keyBytes = new byte[keyLength];
+            in.readFully(keyBytes);
+            if (!key.equals(new String(keyBytes, UTF8))) {
+                return null;  // hash collision
+            }
+            int sourcePoints = in.readInt();
+            int length = in.readInt();
+            if (length < 0 || length % 4 != 0 || length * 8L > fileLength) {
+                return null;
+            }
+            int[] indices = new int[length];
+            float[] weights = new float[length];
+            for (int i = 0; i < length; i++) {
+                indices[i] = in.readInt();
+                weights[i] = in.readFloat();
+            }
+            return new Regridder(key, indices, weights, sourcePoints);
+        }
+        catch (EOFException e) {
+            return null;  // truncated, perhaps by an interrupted write
+        }
+    }
+
+    void write(File file) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            byte[] keyBytes = key.getBytes(UTF8);
+            out.writeInt(MAGIC);
+            out.writeInt(keyBytes.length);
+            out.write(keyBytes);
+            out.writeInt(sourcePoints);
+            out.writeInt(indices.length);
+            for (int i = 0; i < indices.length; i++) {
+                out.writeInt(indices[i]);
+                out.writeFloat(weights[i]);
+            }
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+        }
+    }
+
+    /**
+     * Returns the regridder from source to target, first looking in the in-memory cache, then in the cache
+     * directory (if not null), and finally computing new weights.
+     */
+    static Regridder get(GridProjection source, LonLatGrid target, File cacheDir) throws IOException {
+        String key = source.key() + "->" + target.key();
+        Regridder regridder = cache.get(key);
+        if (regridder != null) {
+            return regridder;
+        }
+
+        File file = cacheDir != null ? cacheFile(cacheDir, key) : null;
+        if (file != null && file.isFile()) {
+            regridder = read(file, key);
+            log.info("Read regridding weights from {}: {}", file, regridder != null);
+        }
+        if (regridder == null) {
+            log.info("Computing regridding weights: {}", key);
+            regridder = build(key, source, target);
+            if (file != null) {
+                cacheDir.mkdirs();
+                regridder.write(file);
+            }
+        }
+
+        Regridder existing = cache.putIfAbsent(key, regridder);
+        return existing != null ? existing : regridder;
+    }
+
+    /**
+     * Interpolate the source data to the target grid. Target points that lie outside the source grid, or that
+     * are adjacent to a NaN source value, are NaN.
+     */
+    float[] apply(final float[] data) {
+        if (data.length != sourcePoints) {
+            throw new IllegalArgumentException(
+                "expected " + sourcePoints + " points to regrid but found " + data.length);
+        }
+        final float[] result = new float[indices.length / 4];
+        new ParallelLoop(CHUNK) {
+            @Override protected void compute(int from, int to) {
+                for (int t = from, k = from * 4; t < to; t++, k += 4) {
+                    if (indices[k] < 0) {
+                        result[t] = Float.NaN;
+                        continue;
+                    }
+                    result[t] =
+                        weights[k    ] * data[indices[k    ]] +
+                        weights[k + 1] * data[indices[k + 1]] +
+                        weights[k + 2] * data[indices[k + 2]] +
+                        weights[k + 3] * data[indices[k + 3]];
+                }
+            }
+        }.run(result.length);
+        return result;
+    }
+}
@@ -0,0 +1,69 @@
+package net.nullschool.grib2json;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * A snapshot of the JVM's garbage collection and allocation counters, used to report what a conversion cost in
+ * GC activity when running with --verbose. Allocated bytes are summed over live threads and are available only on
+ * JVMs that expose com.sun.management.ThreadMXBean.
+ */
+final class RuntimeStats {
+
+    private final long startNanos = System.nanoTime();
+    private final long collections;
+    private final long collectionMillis;
+    private final long allocatedBytes;
+
+    RuntimeStats() {
+        long count = 0, millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(gc.getCollectionCount(), 0);
+            millis += Math.max(gc.getCollectionTime(), 0);
+        }
+        this.collections = count;
+        this.collectionMillis = millis;
+        this.allocatedBytes = allocatedBytes();
+    }
+
+    /**
+     * Returns the bytes allocated by all live threads, or -1 if the JVM does not support allocation accounting.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean)threads;
+        if (!sun.isThreadAllocatedMemorySupported() || !sun.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long total = 0;
+        for (long bytes : sun.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(bytes, 0);
+        }
+        return total;
+    }
+
+    /**
+     * Returns a description of the GC activity and allocation since this snapshot was taken, for logging.
+     */
+    String report() {
+        RuntimeStats now = new RuntimeStats();
+        long elapsedMillis = (now.startNanos - startNanos) / 1000000;
+        String allocated = allocatedBytes < 0 || now.allocatedBytes < 0 ?
+            "unknown" :
+            String.format("%,d bytes", now.allocatedBytes - allocatedBytes);
+        return String.format(
+            "%,d ms elapsed, %s allocated, %d GCs taking %,d ms; %s",
+            elapsedMillis,
+            allocated,
+            now.collections - collections,
+            now.collectionMillis - collectionMillis,
+            FloatArrayEncoder.stats());
+    }
+}
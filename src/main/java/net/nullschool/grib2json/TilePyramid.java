@@ -0,0 +1,209 @@
+package net.nullschool.grib2json;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+import java.io.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * A multi-resolution pyramid of a record's data. Level 0 is the data at native resolution, and each subsequent
+ * level halves the resolution along both axes, so level k has (roughly) 1/2^k the points per axis. All levels
+ * are built in a single pass over the native data. Each level is then split into square tiles of a fixed size,
+ * each written to its own file, so that a client can load the coarse levels first and fetch the finer levels
+ * only where needed.
+ *
+ * Tiles are written to "{dir}/{record}/{level}/{ty}_{tx}.json", where ty and tx are the tile's row and column
+ * indices within the level, as objects of the form {"x":..., "y":..., "nx":..., "ny":..., "data":[...]}, where x and
+ * y are the grid coordinates of the tile's first point and nx, ny are the tile's dimensions (tiles on the right and
+ * bottom edges may be partial).
+ */
+final class TilePyramid {
+
+    /**
+     * The method of combining a block of points into a single, downsampled point. NaN points are ignored.
+     */
+    enum Reducer {
+        MEAN, MAX, NEAREST;
+
+        static Reducer parse(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            }
+            catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown pyramid reducer: " + name);
+            }
+        }
+    }
+
+    private static final JsonGeneratorFactory tileFactory = Json.createGeneratorFactory(
+        Collections.<String, Object>emptyMap());
+
+    private final int nx;
+    private final int ny;
+    private final float[][] levels;
+
+    private TilePyramid(int nx, int ny, float[][] levels) {
+        this.nx = nx;
+        this.ny = ny;
+        this.levels = levels;
+    }
+
+    private static int shrink(int n, int level) {
+        return (n + (1 << level) - 1) >> level;
+    }
+
+    /**
+     * Build a pyramid having the specified number of downsampled levels from the native data of size nx * ny,
+     * scanned row by row.
+     */
+    static TilePyramid build(float[] data, int nx, int ny, int levelCount, Reducer reducer) {
+        if (data.length != nx * ny) {
+            throw new IllegalArgumentException("expected " + nx * ny + " points but found " + data.length);
+        }
+        if (levelCount < 0 || levelCount > 30) {
+            throw new IllegalArgumentException("invalid pyramid level count: " + levelCount);
+        }
+
+        float[][] levels = new float[levelCount + 1][];
+        int[][] counts = new int[levels.length][];
+        levels[0] = data;
+        for (int k = 1; k < levels.length; k++) {
+            float[] level = levels[k] = new float[shrink(nx, k) * shrink(ny, k)];
+            counts[k] = new int[level.length];
+            switch (reducer) {
+                case MEAN:    Arrays.fill(level, 0); break;
+                case MAX:     Arrays.fill(level, Float.NEGATIVE_INFINITY); break;
+                case NEAREST: Arrays.fill(level, Float.NaN); break;
+            }
+        }
+
+        // Single pass over the native data, accumulating into every level at once.
+        for (int y = 0, i = 0; y < ny; y++) {
+            for (int x = 0; x < nx; x++, i++) {
+                float value = data[i];
+                if (Float.isNaN(value)) {
+                    continue;
+                }
+                for (int k = 1; k < levels.length; k++) {
+                    int j = (y >> k) * shrink(nx, k) + (x >> k);
+                    switch (reducer) {
+                        case MEAN:
+                            levels[k][j] += value;
+                            counts[k][j]++;
+                            break;
+                        case MAX:
+                            levels[k][j] = Math.max(levels[k][j], value);
+                            counts[k][j]++;
+                            break;
+                        case NEAREST:
+                            int mask = (1 << k) - 1;
+                            if ((x & mask) == 0 && (y & mask) == 0) {
+                                levels[k][j] = value;
+                            }
+                            break;
+                    }
+                }
+            }
+        }
+
+        if (reducer != Reducer.NEAREST) {
+            for (int k = 1; k < levels.length; k++) {
+                float[] level = levels[k];
+                int[] count = counts[k];
+                for (int j = 0; j < level.length; j++) {
+                    level[j] =
+                        count[j] == 0 ? Float.NaN :
+                        reducer == Reducer.MEAN ? level[j] / count[j] :
+                        level[j];
+                }
+            }
+        }
+        return new TilePyramid(nx, ny, levels);
+    }
+
+    int getLevelCount() {
+        return levels.length;
+    }
+
+    /**
+     * Returns the points of level k, scanned row by row.
+     */
+    float[] getLevel(int k) {
+        return levels[k];
+    }
+
+
+    private static int tiles(int n, int tileSize) {
+        return (n + tileSize - 1) / tileSize;
+    }
+
+    private void writeTile(File file, float[] level, int levelNx, int x0, int y0, int w, int h) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            JsonGenerator jg = tileFactory.createGenerator(out);
+            jg.writeStartObject();
+            jg.write("x", x0);
+            jg.write("y", y0);
+            jg.write("nx", w);
+            jg.write("ny", h);
+            jg.writeStartArray("data");
+            for (int y = y0; y < y0 + h; y++) {
+                for (int x = x0, i = y * levelNx + x0; x < x0 + w; x++, i++) {
+                    jg.write(new FloatValue(level[i]));
+                }
+            }
+            jg.writeEnd();
+            jg.writeEnd();
+            jg.close();
+        }
+    }
+
+    /**
+     * Write the tiles of every level to the directory, and describe the levels in the manifest as the Json
+     * array "levels": [ ... ].
+     *
+     * @param dir the pyramid's output directory.
+     * @param record the name of the record's subdirectory.
+     * @param tileSize the width and height of each tile.
+     * @param manifest the generator of the manifest, positioned within the record's object.
+     */
+    void write(File dir, String record, int tileSize, JsonGenerator manifest) throws IOException {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("invalid pyramid tile size: " + tileSize);
+        }
+        manifest.write("tiles", record + "/{level}/{ty}_{tx}.json");
+        manifest.writeStartArray("levels");
+        for (int k = 0; k < levels.length; k++) {
+            int levelNx = shrink(nx, k), levelNy = shrink(ny, k);
+            int tilesX = tiles(levelNx, tileSize), tilesY = tiles(levelNy, tileSize);
+
+            File levelDir = new File(new File(dir, record), Integer.toString(k));
+            if (!levelDir.isDirectory() && !levelDir.mkdirs()) {
+                throw new IOException("Cannot create directory: " + levelDir);
+            }
+            for (int ty = 0; ty < tilesY; ty++) {
+                for (int tx = 0; tx < tilesX; tx++) {
+                    int x0 = tx * tileSize, y0 = ty * tileSize;
+                    int w = Math.min(tileSize, levelNx - x0), h = Math.min(tileSize, levelNy - y0);
+                    writeTile(new File(levelDir, ty + "_" + tx + ".json"), levels[k], levelNx, x0, y0, w, h);
+                }
+            }
+
+            manifest.writeStartObject();
+            manifest.write("level", k);
+            manifest.write("factor", 1 << k);
+            manifest.write("nx", levelNx);
+            manifest.write("ny", levelNy);
+            manifest.write("tileSize", tileSize);
+            manifest.write("tilesX", tilesX);
+            manifest.write("tilesY", tilesY);
+            manifest.writeEnd();
+        }
+        manifest.writeEnd();
+    }
+}
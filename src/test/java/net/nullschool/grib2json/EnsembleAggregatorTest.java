@@ -0,0 +1,35 @@
+package net.nullschool.grib2json;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * 2026-10-19<p/>
+ */
+public class EnsembleAggregatorTest {
+
+    @Test
+    public void test_group_key() {
+        String key = EnsembleAggregator.groupKey(0, 2, 2, 103, 10.0, 6);
+        assertEquals(key, EnsembleAggregator.groupKey(0, 2, 2, 103, 10.0, 6));
+
+        // Each field of the product distinguishes groups.
+        Set<String> keys = new HashSet<>();
+        keys.add(key);
+        keys.add(EnsembleAggregator.groupKey(10, 2, 2, 103, 10.0, 6));
+        keys.add(EnsembleAggregator.groupKey(0, 3, 2, 103, 10.0, 6));
+        keys.add(EnsembleAggregator.groupKey(0, 2, 3, 103, 10.0, 6));
+        keys.add(EnsembleAggregator.groupKey(0, 2, 2, 100, 10.0, 6));
+        keys.add(EnsembleAggregator.groupKey(0, 2, 2, 103, 80.0, 6));
+        keys.add(EnsembleAggregator.groupKey(0, 2, 2, 103, 10.0, 12));
+        assertEquals(7, keys.size());
+
+        // Fields are delimited, so adjacent values cannot run together.
+        assertNotEquals(EnsembleAggregator.groupKey(1, 12, 2, 1, 0, 0), EnsembleAggregator.groupKey(11, 2, 2, 1, 0, 0));
+    }
+}
@@ -0,0 +1,78 @@
+package net.nullschool.grib2json;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * 2026-10-19<p/>
+ */
+public class EnsembleGridTest {
+
+    private static final float NaN = Float.NaN;
+
+    @Test
+    public void test_statistics() {
+        EnsembleGrid grid = new EnsembleGrid(2, new double[0]);
+        grid.add(new float[] {2, -1});
+        grid.add(new float[] {4, -1});
+        grid.add(new float[] {4, -1});
+        grid.add(new float[] {4, -1});
+        grid.add(new float[] {5, -1});
+        grid.add(new float[] {5, -1});
+        grid.add(new float[] {7, -1});
+        grid.add(new float[] {9, -1});
+        assertEquals(8, grid.getMembers());
+        assertArrayEquals(new float[] {5, -1}, grid.getMean(), 0);
+        assertArrayEquals(new float[] {2, -1}, grid.getMin(), 0);
+        assertArrayEquals(new float[] {9, -1}, grid.getMax(), 0);
+        assertArrayEquals(new float[] {2, 0}, grid.getStddev(), 0);  // population standard deviation
+    }
+
+    @Test
+    public void test_welford_is_stable() {
+        // Naive sum of squares loses all precision for values with a large offset and a small spread.
+        Random random = new Random(1);
+        EnsembleGrid grid = new EnsembleGrid(1, new double[0]);
+        double sum = 0, sumSquares = 0;
+        int n = 1000;
+        float[][] members = new float[n][];
+        for (int i = 0; i < n; i++) {
+            members[i] = new float[] {(float)(1e6 + random.nextGaussian())};
+            sum += members[i][0];
+        }
+        double mean = sum / n;
+        for (float[] member : members) {
+            grid.add(member);
+            sumSquares += (member[0] - mean) * (member[0] - mean);
+        }
+        assertEquals(mean, grid.getMean()[0], 0.1);
+        assertEquals(Math.sqrt(sumSquares / n), grid.getStddev()[0], 1e-3);
+    }
+
+    @Test
+    public void test_nan_ignored() {
+        EnsembleGrid grid = new EnsembleGrid(3, new double[] {0.5});
+        grid.add(new float[] {NaN, 1, NaN});
+        grid.add(new float[] {3, NaN, NaN});
+        grid.add(new float[] {5, 3, NaN});
+        assertEquals(3, grid.getMembers());
+        assertArrayEquals(new float[] {4, 2, NaN}, grid.getMean(), 0);
+        assertArrayEquals(new float[] {3, 1, NaN}, grid.getMin(), 0);
+        assertArrayEquals(new float[] {5, 3, NaN}, grid.getMax(), 0);
+        assertArrayEquals(new float[] {1, 1, NaN}, grid.getStddev(), 0);
+        assertEquals(1, grid.getQuantiles().size());
+        assertEquals(3, grid.getQuantiles().get(0).get(0), 1);
+        assertTrue(Float.isNaN(grid.getQuantiles().get(0).get(2)));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_member_size_mismatch() {
+        EnsembleGrid grid = new EnsembleGrid(2, new double[0]);
+        grid.add(new float[] {1, 2});
+        grid.add(new float[] {1, 2, 3});
+    }
+}
@@ -0,0 +1,87 @@
+package net.nullschool.grib2json;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * 2026-10-19<p/>
+ */
+public class FileFormatTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File newFile(byte[] contents) throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), contents);
+        return file;
+    }
+
+    private static byte[] indicator(String prefix, int edition) {
+        byte[] b = new byte[prefix.length() + 16];
+        System.arraycopy(prefix.getBytes(), 0, b, 0, prefix.length());
+        System.arraycopy("GRIB".getBytes(), 0, b, prefix.length(), 4);
+        b[prefix.length() + 7] = (byte)edition;
+        return b;
+    }
+
+    @Test
+    public void test_grib() throws IOException {
+        assertEquals(FileFormat.GRIB2, FileFormat.detect(newFile(indicator("", 2))));
+        assertEquals(FileFormat.GRIB1, FileFormat.detect(newFile(indicator("", 1))));
+        assertEquals(FileFormat.GRIB2, FileFormat.detect(newFile(indicator("YRUA98 KWBC 181200\r\r\n", 2))));
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        java.util.Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    @Test
+    public void test_grib_past_probe() throws IOException {
+        // A header longer than the probe, and indicator sections split across the probe and later reads.
+        assertEquals(FileFormat.GRIB2, FileFormat.detect(newFile(indicator(repeat('x', 10000), 2))));
+        assertEquals(FileFormat.GRIB1, FileFormat.detect(newFile(indicator(repeat('x', 4094), 1))));
+        assertEquals(FileFormat.GRIB2, FileFormat.detect(newFile(indicator(repeat('x', 4086), 2))));
+        assertEquals(FileFormat.GRIB2, FileFormat.detect(newFile(indicator(repeat('x', 4096 * 2 - 8), 2))));
+    }
+
+    @Test
+    public void test_grib_after_false_start() throws IOException {
+        byte[] bogus = indicator("", 9);
+        byte[] real = indicator("", 1);
+        byte[] both = new byte[bogus.length + real.length];
+        System.arraycopy(bogus, 0, both, 0, bogus.length);
+        System.arraycopy(real, 0, both, bogus.length, real.length);
+        assertEquals(FileFormat.GRIB1, FileFormat.detect(newFile(both)));
+    }
+
+    @Test
+    public void test_unknown() throws IOException {
+        assertEquals(FileFormat.NETCDF, FileFormat.detect(newFile(repeat('x', 10000).getBytes())));
+        assertEquals(FileFormat.NETCDF, FileFormat.detect(newFile(indicator(repeat('x', 10000), 9))));
+        assertEquals(FileFormat.NETCDF, FileFormat.detect(newFile("xGRI".getBytes())));
+    }
+
+    @Test
+    public void test_netcdf() throws IOException {
+        assertEquals(FileFormat.NETCDF, FileFormat.detect(newFile(new byte[] {'C', 'D', 'F', 1, 0, 0, 0, 0})));
+        byte[] hdf5 = new byte[1024];
+        System.arraycopy(new byte[] {(byte)0x89, 'H', 'D', 'F', '\r', '\n', 0x1a, '\n'}, 0, hdf5, 512, 8);
+        assertEquals(FileFormat.NETCDF, FileFormat.detect(newFile(hdf5)));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_empty() throws IOException {
+        FileFormat.detect(newFile(new byte[0]));
+    }
+}
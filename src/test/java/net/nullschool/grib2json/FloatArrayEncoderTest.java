@@ -0,0 +1,119 @@
+package net.nullschool.grib2json;
+
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Random;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.*;
+
+
+/**
+ * 2026-10-19<p/>
+ */
+public class FloatArrayEncoderTest {
+
+    private static String write(float[] data, boolean pretty, boolean parallel) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator jg = Json.createGeneratorFactory(
+            pretty ? singletonMap(JsonGenerator.PRETTY_PRINTING, true) : null).createGenerator(out);
+        if (parallel) {
+            FloatArrayEncoder.attach(jg, out);
+        }
+        jg.writeStartArray().writeStartObject().write("a", 1).writeStartArray("data");
+        if (parallel) {
+            FloatArrayEncoder.of(pretty).write(jg, data, false);
+        }
+        else {
+            for (float value : data) {
+                jg.write(new FloatValue(value));
+            }
+        }
+        jg.writeEnd().write("b", 2).writeEnd().writeEnd().close();
+        return out.toString("UTF-8");
+    }
+
+    private static String writeNdjson(float[] data, boolean parallel) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator jg = new NdjsonGenerator(out);
+        if (parallel) {
+            FloatArrayEncoder.attach(jg, out);
+        }
+        jg.writeStartArray();
+        for (int i = 0; i < 2; i++) {
+            jg.writeStartObject().writeStartArray("data");
+            if (parallel) {
+                FloatArrayEncoder.of(false).write(jg, data, false);
+            }
+            else {
+                for (float value : data) {
+                    jg.write(new FloatValue(value));
+                }
+            }
+            jg.writeEnd().writeEnd();
+        }
+        jg.writeEnd().close();
+        return out.toString("UTF-8");
+    }
+
+    private static float[] sample(int length) {
+        Random random = new Random(42);
+        float[] data = new float[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = i % 97 == 0 ? Float.NaN : random.nextFloat() * 1000 - 500;
+        }
+        return data;
+    }
+
+    @Test
+    public void test_identical_output() throws IOException {
+        int chunk = FloatArrayEncoder.CHUNK;
+        int[] lengths = {0, 1, 2, 3, chunk, chunk + 1, chunk + 2, chunk * 5 + 1, chunk * 5 + 3};
+        for (int length : lengths) {
+            float[] data = sample(length);
+            assertEquals(write(data, false, false), write(data, false, true));
+            assertEquals(write(data, true, false), write(data, true, true));
+            assertEquals(writeNdjson(data, false), writeNdjson(data, true));
+        }
+    }
+
+    @Test
+    public void test_unattached_generator() {
+        float[] data = sample(FloatArrayEncoder.CHUNK * 2);
+        StringWriter out = new StringWriter();
+        JsonGenerator jg = Json.createGenerator(out);
+        jg.writeStartArray();
+        FloatArrayEncoder.of(false).write(jg, data, false);
+        jg.writeEnd().close();
+        assertEquals(data.length, out.toString().split(",").length);
+    }
+
+    @Test
+    public void test_valid_only() throws IOException {
+        float[] data = sample(FloatArrayEncoder.CHUNK * 3 + 7);
+        data[0] = data[1] = Float.NaN;
+        float[] valid = new float[data.length];
+        int count = 0;
+        for (float value : data) {
+            if (!Float.isNaN(value)) {
+                valid[count++] = value;
+            }
+        }
+        valid = java.util.Arrays.copyOf(valid, count);
+
+        for (boolean pretty : new boolean[] {false, true}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            JsonGenerator jg = FloatArrayEncoder.attach(Json.createGeneratorFactory(
+                pretty ? singletonMap(JsonGenerator.PRETTY_PRINTING, true) : null).createGenerator(out), out);
+            jg.writeStartArray().writeStartObject().write("a", 1).writeStartArray("data");
+            FloatArrayEncoder.of(pretty).write(jg, data, true);
+            jg.writeEnd().write("b", 2).writeEnd().writeEnd().close();
+            assertEquals(write(valid, pretty, false), out.toString("UTF-8"));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package net.nullschool.grib2json;
+
+import com.lexicalscope.jewel.cli.CliFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * 2026-10-19<p/>
+ */
+public class Grib1ReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static ByteBuffer putUint3(ByteBuffer buf, int value) {
+        return buf.put((byte)(value >>> 16)).put((byte)(value >>> 8)).put((byte)value);
+    }
+
+    /**
+     * Returns a GRIB1 message of 10m u-component of wind (parameter 33, level type 105) on a 4x3 lon/lat grid.
+     */
+    private static byte[] message() {
+        ByteBuffer buf = ByteBuffer.allocate(96);
+        buf.put("GRIB".getBytes());
+        putUint3(buf, 96).put((byte)1);
+        putUint3(buf, 28).put(new byte[] {2, 7, 81, (byte)255, (byte)0x80, 33, 105}).putShort((short)10);
+        buf.put(new byte[] {26, 10, 19, 0, 0, 1, 0, 0, 0, 0, 0, 0, 21, 0, 0, 0});
+        putUint3(buf, 32).put(new byte[] {0, (byte)255, 0}).putShort((short)4).putShort((short)3);
+        putUint3(putUint3(buf, 60000), 0).put((byte)0x80);  // la1 = 60, lo1 = 0
+        putUint3(putUint3(buf, 58000), 3000).putShort((short)1000).putShort((short)1000).put(new byte[5]);
+        putUint3(buf, 24).put((byte)8).putShort((short)0).putInt(0).put((byte)8);  // 8 bits per value
+        for (int i = 0; i < 13; i++) {
+            buf.put((byte)i);
+        }
+        buf.put("7777".getBytes());
+        return buf.array();
+    }
+
+    private Grib1Reader open() throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), message());
+        assertEquals(FileFormat.GRIB1, FileFormat.detect(file));
+        return Grib1Reader.open(file);
+    }
+
+    private static Options options(String... args) {
+        return CliFactory.parseArguments(Options.class, TestGrib.concatArgs(args, "a.grib"));
+    }
+
+    @Test
+    public void test_header_keys() throws IOException {
+        StringWriter out = new StringWriter();
+        JsonGenerator jg = Json.createGenerator(out);
+        try (Grib1Reader reader = open()) {
+            List<DecodedRecord> records = reader.select(jg, options("--fp", "wind"));
+            assertEquals(1, records.size());
+            assertEquals(4, records.get(0).getNx());
+            assertEquals(3, records.get(0).getNy());
+            jg.writeStartObject();
+            records.get(0).writeHeader(null);
+            jg.writeEnd();
+            jg.close();
+        }
+        String header = out.toString();
+        assertTrue(header, header.contains("\"table2Version\":2,\"indicatorOfParameter\":33,"));
+        assertTrue(header, header.contains("\"indicatorOfTypeOfLevel\":105,\"level\":10.0,"));
+        assertTrue(header, header.contains("\"dataRepresentationType\":0,"));
+        assertFalse(header, header.contains("parameterNumber"));
+        assertFalse(header, header.contains("surface1"));
+        assertFalse(header, header.contains("gridDefinitionTemplate"));
+    }
+
+    @Test
+    public void test_parameter_filter() throws IOException {
+        try (Grib1Reader reader = open()) {
+            StringWriter out = new StringWriter();
+            assertEquals(1, reader.select(Json.createGenerator(out), options("--fp", "33")).size());
+            assertEquals(0, reader.select(Json.createGenerator(out), options("--fp", "34")).size());
+        }
+    }
+
+    @Test
+    public void test_grib2_options_rejected() throws IOException {
+        try (Grib1Reader reader = open()) {
+            reader.check(options("--fp", "wind"));
+            String[][] rejected =
+                {{"--fd", "0"}, {"--fc", "2"}, {"--fs", "105"}, {"--fv", "10"}, {"--regrid", "0,0,1,1,1,1"}};
+            for (String[] args : rejected) {
+                try {
+                    reader.check(options(args));
+                    fail(args[0]);
+                }
+                catch (IllegalArgumentException e) {
+                    assertTrue(e.getMessage(), e.getMessage().startsWith(args[0] + " is not supported for GRIB1"));
+                }
+            }
+        }
+    }
+}
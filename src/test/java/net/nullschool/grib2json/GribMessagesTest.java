@@ -0,0 +1,51 @@
+package net.nullschool.grib2json;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * 2026-10-19<p/>
+ */
+public class GribMessagesTest {
+
+    @Test
+    public void test_grib2_indicator() {
+        byte[] message = TestGrib.message(300);
+        assertTrue(GribMessages.isStart(message, 0));
+        assertEquals(2, GribMessages.edition(message));
+        assertEquals(16 + 300 + 4, GribMessages.length(message));
+        assertEquals(message.length, GribMessages.length(message));
+        assertTrue(GribMessages.hasEnd(message));
+        assertFalse(GribMessages.hasEnd(Arrays.copyOf(message, message.length - 1)));
+        assertFalse(GribMessages.hasEnd(new byte[] {'7', '7'}));
+    }
+
+    @Test
+    public void test_long_length() {
+        byte[] indicator = TestGrib.message(0);
+        indicator[11] = 1;  // 2^32
+        indicator[15] = 20;
+        assertEquals((1L << 32) + 20, GribMessages.length(indicator));
+    }
+
+    @Test
+    public void test_grib1_indicator() {
+        byte[] indicator = {'G', 'R', 'I', 'B', 0x01, 0x02, 0x03, 1, 0, 0, 0, 0, 0, 0, 0, 0};
+        assertEquals(1, GribMessages.edition(indicator));
+        assertEquals(0x010203, GribMessages.length(indicator));
+    }
+
+    @Test
+    public void test_index_of_start() {
+        byte[] b = "xxGRxGRIBxxGRIB".getBytes();
+        assertEquals(5, GribMessages.indexOfStart(b, 0, b.length));
+        assertEquals(5, GribMessages.indexOfStart(b, 5, b.length));
+        assertEquals(11, GribMessages.indexOfStart(b, 6, b.length));
+        assertEquals(-1, GribMessages.indexOfStart(b, 0, 8));  // "GRIB" straddles the end of the range
+        assertEquals(-1, GribMessages.indexOfStart(b, 12, b.length));
+    }
+}
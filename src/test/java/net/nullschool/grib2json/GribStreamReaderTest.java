@@ -0,0 +1,136 @@
+package net.nullschool.grib2json;
+
+import com.lexicalscope.jewel.cli.CliFactory;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+
+import static net.nullschool.grib2json.TestGrib.*;
+import static org.junit.Assert.*;
+
+
+/**
+ * 2026-10-19<p/>
+ */
+public class GribStreamReaderTest {
+
+    private static final byte[] IDENTIFICATION = section(1, 0, 7, 0, 0, 2, 1, 1, 7, 222, 2, 20, 18, 0, 0, 0, 1);
+    private static final byte[] LOCAL_USE = section(2, 42, 42);
+    private static final byte[] GRID_A = section(3, 0, 0, 0, 0, 1);
+    private static final byte[] GRID_B = section(3, 0, 0, 0, 0, 2);
+    private static final byte[] BITMAP_A = section(6, 0, 0xf0, 0x0f);
+    private static final byte[] BITMAP_PREDEFINED = section(6, 254);
+    private static final byte[] NO_BITMAP = section(6, 255);
+
+    /**
+     * Returns a product definition section for a field having the specified category and parameter.
+     */
+    private static byte[] product(int category, int parameter) {
+        return section(4, 0, 0, 0, 0, category, parameter, 2, 0, 81);
+    }
+
+    private static byte[] representation(int field) {
+        return section(5, 0, 0, 0, 6, 0, 0, field);
+    }
+
+    private static byte[] data(int field) {
+        return section(7, field, field, field);
+    }
+
+    private static GribStreamReader reader(byte[] stream, String... args) {
+        String[] withFile = TestGrib.concatArgs(args, "-");
+        return new GribStreamReader(
+            new ByteArrayInputStream(stream),
+            Collections.singletonList(CliFactory.parseArguments(Options.class, withFile)));
+    }
+
+    @Test
+    public void test_unfiltered_message_unchanged() throws Exception {
+        byte[] message = message(0,
+            IDENTIFICATION, LOCAL_USE, GRID_A,
+            product(2, 2), representation(1), BITMAP_A, data(1),
+            product(2, 3), representation(2), BITMAP_PREDEFINED, data(2));
+        GribStreamReader reader = reader(message);
+        assertArrayEquals(message, reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void test_unselected_fields_dropped() throws Exception {
+        byte[] message = message(0,
+            IDENTIFICATION, GRID_A,
+            product(2, 2), representation(1), NO_BITMAP, data(1),
+            product(2, 3), representation(2), NO_BITMAP, data(2),
+            product(0, 0), representation(3), NO_BITMAP, data(3));
+        byte[] expected = message(0,
+            IDENTIFICATION, GRID_A,
+            product(2, 3), representation(2), NO_BITMAP, data(2));
+        assertArrayEquals(expected, reader(message, "--fp", "3").next());
+    }
+
+    @Test
+    public void test_buffered_sections_carried_forward() throws Exception {
+        // The first field, and the grid and local use sections preceding it, are not selected. The selected third
+        // field relies on the local use section of the first and the grid section of the second.
+        byte[] message = message(0,
+            IDENTIFICATION, LOCAL_USE, GRID_A,
+            product(2, 2), representation(1), NO_BITMAP, data(1),
+            GRID_B,
+            product(2, 3), representation(2), NO_BITMAP, data(2),
+            product(2, 4), representation(3), NO_BITMAP, data(3));
+        byte[] expected = message(0,
+            IDENTIFICATION, LOCAL_USE, GRID_B,
+            product(2, 4), representation(3), NO_BITMAP, data(3));
+        assertArrayEquals(expected, reader(message, "--fp", "4").next());
+    }
+
+    @Test
+    public void test_grid_written_once() throws Exception {
+        byte[] message = message(0,
+            IDENTIFICATION, GRID_A,
+            product(2, 2), representation(1), NO_BITMAP, data(1),
+            product(2, 3), representation(2), NO_BITMAP, data(2),
+            product(2, 2), representation(3), NO_BITMAP, data(3));
+        byte[] expected = message(0,
+            IDENTIFICATION, GRID_A,
+            product(2, 2), representation(1), NO_BITMAP, data(1),
+            product(2, 2), representation(3), NO_BITMAP, data(3));
+        assertArrayEquals(expected, reader(message, "--fp", "2").next());
+    }
+
+    @Test
+    public void test_predefined_bitmap_reemitted() throws Exception {
+        // The second field refers to the bitmap of the first, which is dropped, so the bitmap itself is emitted.
+        byte[] message = message(0,
+            IDENTIFICATION, GRID_A,
+            product(2, 2), representation(1), BITMAP_A, data(1),
+            product(2, 3), representation(2), BITMAP_PREDEFINED, data(2));
+        byte[] expected = message(0,
+            IDENTIFICATION, GRID_A,
+            product(2, 3), representation(2), BITMAP_A, data(2));
+        assertArrayEquals(expected, reader(message, "--fp", "3").next());
+    }
+
+    @Test
+    public void test_messages_without_selected_fields_skipped() throws Exception {
+        byte[] a = message(0, IDENTIFICATION, GRID_A, product(2, 2), representation(1), NO_BITMAP, data(1));
+        byte[] b = message(0, IDENTIFICATION, GRID_A, product(2, 3), representation(2), NO_BITMAP, data(2));
+        GribStreamReader reader = reader(concat(a, b, a), "--fp", "3");
+        assertArrayEquals(b, reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void test_garbage_and_grib1_skipped() throws Exception {
+        byte[] grib1 = message(20);
+        grib1[7] = 1;
+        grib1[4] = 0;
+        grib1[5] = 0;
+        grib1[6] = (byte)grib1.length;
+        byte[] a = message(0, IDENTIFICATION, GRID_A, product(2, 2), representation(1), NO_BITMAP, data(1));
+        GribStreamReader reader = reader(concat("GRGGRjunk".getBytes(), grib1, "xx".getBytes(), a, "tail".getBytes()));
+        assertArrayEquals(a, reader.next());
+        assertNull(reader.next());
+    }
+}
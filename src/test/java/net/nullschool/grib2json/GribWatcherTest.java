@@ -0,0 +1,113 @@
+package net.nullschool.grib2json;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static net.nullschool.grib2json.TestGrib.*;
+import static org.junit.Assert.*;
+
+
+/**
+ * 2026-10-19<p/>
+ */
+public class GribWatcherTest {
+
+    @Rule public final TemporaryFolder temp = new TemporaryFolder();
+
+    private final List<Long> offsets = new ArrayList<>();
+    private final List<byte[]> messages = new ArrayList<>();
+
+    private final GribWatcher.MessageHandler handler = new GribWatcher.MessageHandler() {
+        @Override public void handle(long offset, byte[] message) {
+            offsets.add(offset);
+            messages.add(message);
+        }
+    };
+
+    /**
+     * Write the bytes to a file and frame the file's messages starting at the specified offset, returning the
+     * offset at which framing would resume.
+     */
+    private long frame(byte[] bytes, long offset) throws IOException {
+        File file = new File(temp.getRoot(), "test.grib2");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(0);
+            raf.write(bytes);
+            return GribWatcher.frame(raf, offset, raf.length(), handler);
+        }
+    }
+
+    @Test
+    public void test_messages() throws Exception {
+        byte[] a = message(100), b = message(7);
+        assertEquals(a.length + b.length, frame(concat(a, b), 0));
+        assertEquals(Arrays.asList(0L, (long)a.length), offsets);
+        assertArrayEquals(a, messages.get(0));
+        assertArrayEquals(b, messages.get(1));
+    }
+
+    @Test
+    public void test_partial_indicator() throws Exception {
+        byte[] a = message(100);
+        assertEquals(0, frame(Arrays.copyOf(a, 10), 0));
+        assertEquals(a.length, frame(concat(a, Arrays.copyOf(a, 15)), 0));
+        assertEquals(1, messages.size());
+    }
+
+    @Test
+    public void test_partial_message() throws Exception {
+        byte[] a = message(100), b = message(50);
+        byte[] partial = concat(a, Arrays.copyOf(b, 40));
+        assertEquals(a.length, frame(partial, 0));
+        assertEquals(1, messages.size());
+
+        // Resume where framing stopped once the rest of the message arrives.
+        assertEquals(a.length + b.length, frame(concat(a, b), a.length));
+        assertEquals(2, messages.size());
+        assertArrayEquals(b, messages.get(1));
+    }
+
+    @Test
+    public void test_garbage_between_messages() throws Exception {
+        byte[] a = message(100), b = message(30);
+        byte[] junk = "junk GRI GR 7777 GRIBxxxx".getBytes();  // includes a bogus "GRIB" having length 0
+        byte[] bytes = concat(junk, a, junk, b, junk);
+        long end = frame(bytes, 0);
+        assertEquals(Arrays.asList((long)junk.length, (long)(junk.length * 2 + a.length)), offsets);
+        assertArrayEquals(a, messages.get(0));
+        assertArrayEquals(b, messages.get(1));
+        assertTrue(end > bytes.length - junk.length && end <= bytes.length);
+    }
+
+    @Test
+    public void test_marker_split_across_search_chunk() throws Exception {
+        byte[] a = message(100);
+        for (int split = 1; split <= 3; split++) {
+            offsets.clear();
+            // Place the message so that only the first bytes of its "GRIB" fall within the first search chunk.
+            byte[] padding = new byte[GribWatcher.SEARCH_CHUNK - split];
+            assertEquals(padding.length + a.length, frame(concat(padding, a), 0));
+            assertEquals(Arrays.asList((long)padding.length), offsets);
+        }
+    }
+
+    @Test
+    public void test_other_editions_skipped() throws Exception {
+        byte[] grib1 = message(100);
+        grib1[7] = 1;
+        grib1[4] = 0;
+        grib1[5] = 0;
+        grib1[6] = (byte)grib1.length;  // GRIB1 stores a three byte length after "GRIB"
+        byte[] a = message(20);
+        assertEquals(grib1.length + a.length, frame(concat(grib1, a), 0));
+        assertEquals(Arrays.asList((long)grib1.length), offsets);
+    }
+}
@@ -0,0 +1,179 @@
+package net.nullschool.grib2json;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * 2026-10-19<p/>
+ */
+public class GridProjectionTest {
+
+    @Test
+    public void test_lon_lat() throws Exception {
+        GridProjection p = GridProjection.forGds(TestGds.lonLat(360, 181, 0, 90, 359, -90, 1, 1, 0));
+        double[] ij = new double[2];
+        p.locate(45.5, -10.25, ij);
+        assertEquals(349.75, ij[0], 1e-9);
+        assertEquals(44.5, ij[1], 1e-9);
+        assertTrue(p.isWrapped());
+    }
+
+    @Test
+    public void test_rotated() throws Exception {
+        // Rotated grid with south pole at 40S 10E, so the rotated origin (0, 0) lies at 50N 10E.
+        GridProjection p = GridProjection.forGds(
+            TestGds.rotated(11, 11, -5, -5, 5, 5, 1, 1, 0x40, -40, 10, 0));
+        double[] ij = new double[2];
+        p.locate(50, 10, ij);
+        assertEquals(5, ij[0], 1e-6);
+        assertEquals(5, ij[1], 1e-6);
+        p.locate(46, 10, ij);  // four degrees south along the rotated prime meridian
+        assertEquals(5, ij[0], 1e-6);
+        assertEquals(1, ij[1], 1e-6);
+        assertFalse(p.isWrapped());
+    }
+
+    @Test
+    public void test_unrotated() throws Exception {
+        // South pole at the geographic south pole: rotated coordinates are geographic.
+        GridProjection p = GridProjection.forGds(
+            TestGds.rotated(11, 11, 20, 30, 30, 40, 1, 1, 0x40, -90, 0, 0));
+        double[] ij = new double[2];
+        p.locate(32, 23, ij);
+        assertEquals(3, ij[0], 1e-6);
+        assertEquals(2, ij[1], 1e-6);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_rotation_angle() throws Exception {
+        GridProjection.forGds(TestGds.rotated(11, 11, -5, -5, 5, 5, 1, 1, 0x40, -40, 10, 15));
+    }
+
+    private static final double R = 6371.229;  // km, the sphere of shape 6
+
+    private interface Forward {
+        /** Returns the projection coordinates (x, y), in km, of the specified point. */
+        double[] xy(double lat, double lon);
+    }
+
+    /**
+     * Check that each lon/lat point is located at the grid position computed with the forward projection formula,
+     * for a grid whose first point is (la1, lo1), scanning in the +i and +j directions with increments d (km).
+     */
+    private static void check(GridProjection p, Forward f, double la1, double lo1, double d, double[][] points) {
+        double[] origin = f.xy(la1, lo1);
+        double[] ij = new double[2];
+        p.locate(la1, lo1, ij);
+        assertEquals(0, ij[0], 1e-6);
+        assertEquals(0, ij[1], 1e-6);
+        for (double[] point : points) {
+            double[] xy = f.xy(point[0], point[1]);
+            p.locate(point[0], point[1], ij);
+            assertEquals((xy[0] - origin[0]) / d, ij[0], 1e-6);
+            assertEquals((xy[1] - origin[1]) / d, ij[1], 1e-6);
+        }
+    }
+
+    private static double rad(double degrees) {
+        return Math.toRadians(degrees);
+    }
+
+    @Test
+    public void test_mercator() throws Exception {
+        final double laD = 20, lo1 = 100;
+        GridProjection p = GridProjection.forGds(TestGds.mercator(100, 80, -10, lo1, laD, 30, 150, 0x40, 5000, 5000));
+        check(p, new Forward() {
+            @Override public double[] xy(double lat, double lon) {
+                double k = R * Math.cos(rad(laD));
+                return new double[] {k * rad(lon - lo1), k * Math.log(Math.tan(Math.PI / 4 + rad(lat) / 2))};
+            }
+        }, -10, lo1, 5, new double[][] {{-9.5, 100.5}, {0, 120}, {29.9, 149.5}});
+        assertFalse(p.isWrapped());
+    }
+
+    private static Forward stereographic(final boolean south, final double laD, final double loV) {
+        return new Forward() {
+            @Override public double[] xy(double lat, double lon) {
+                double scale = (1 + Math.sin(rad(Math.abs(laD)))) / 2;
+                double phi = rad(lat), lambda = rad(lon - loV);
+                double k = 2 * scale / (1 + (south ? -1 : 1) * Math.sin(phi));
+                double rho = R * k * Math.cos(phi);
+                return new double[] {rho * Math.sin(lambda), (south ? 1 : -1) * rho * Math.cos(lambda)};
+            }
+        };
+    }
+
+    @Test
+    public void test_polar_stereographic() throws Exception {
+        // Similar to the NCEP Alaska grids: true at 60N, oriented along 210E.
+        GridProjection p = GridProjection.forGds(
+            TestGds.polarStereographic(200, 150, 40, 180, 60, 210, 11250, 11250, 0, 0x40));
+        check(p, stereographic(false, 60, 210), 40, 180, 11.25,
+            new double[][] {{45, 190}, {60, 210}, {70, 250}, {85, 100}});
+    }
+
+    @Test
+    public void test_south_polar_stereographic() throws Exception {
+        GridProjection p = GridProjection.forGds(
+            TestGds.polarStereographic(100, 100, -40, 0, -60, 90, 25000, 25000, 0x80, 0x40));
+        check(p, stereographic(true, -60, 90), -40, 0, 25,
+            new double[][] {{-45, 10}, {-75, 90}, {-89, 270}});
+    }
+
+    private static Forward lambert(final double latin1, final double latin2, final double loV) {
+        return new Forward() {
+            @Override public double[] xy(double lat, double lon) {
+                double phi1 = rad(latin1), phi2 = rad(latin2);
+                double n = latin1 == latin2 ?
+                    Math.sin(phi1) :
+                    Math.log(Math.cos(phi1) / Math.cos(phi2)) /
+                        Math.log(Math.tan(Math.PI / 4 + phi2 / 2) / Math.tan(Math.PI / 4 + phi1 / 2));
+                double f = Math.cos(phi1) * Math.pow(Math.tan(Math.PI / 4 + phi1 / 2), n) / n;
+                double rho = R * f / Math.pow(Math.tan(Math.PI / 4 + rad(lat) / 2), n);
+                double theta = n * rad(lon - loV);
+                return new double[] {rho * Math.sin(theta), -rho * Math.cos(theta)};
+            }
+        };
+    }
+
+    @Test
+    public void test_lambert_tangent() throws Exception {
+        GridProjection p = GridProjection.forGds(
+            TestGds.lambert(1800, 1060, 21.125, 237.25, 38.5, 262.5, 3000, 3000, 0x40, 38.5, 38.5));
+        check(p, lambert(38.5, 38.5, 262.5), 21.125, 237.25, 3,
+            new double[][] {{38.5, 262.5}, {30, 250}, {47, 290}});
+        assertFalse(p.isWrapped());
+    }
+
+    @Test
+    public void test_lambert_hrrr() throws Exception {
+        GridProjection p = GridProjection.forGds(
+            TestGds.lambert(1799, 1059, 21.138123, 237.280472, 38.5, 262.5, 3000, 3000, 0x40, 38.5, 38.5));
+
+        // The published last grid point of the HRRR CONUS grid.
+        double[] ij = new double[2];
+        p.locate(47.842195, -60.917193, ij);
+        assertEquals(1798, ij[0], 0.05);
+        assertEquals(1058, ij[1], 0.05);
+    }
+
+    @Test
+    public void test_lambert_secant() throws Exception {
+        GridProjection p = GridProjection.forGds(
+            TestGds.lambert(300, 200, 20, 230, 25, 265, 12000, 12000, 0x40, 25, 45));
+        check(p, lambert(25, 45, 265), 20, 230, 12,
+            new double[][] {{35, 265}, {25, 240}, {50, 300}});
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_column_major_scan() throws Exception {
+        GridProjection.forGds(TestGds.lonLat(360, 181, 0, 90, 359, -90, 1, 1, 0x20));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_alternating_scan() throws Exception {
+        GridProjection.forGds(TestGds.lonLat(360, 181, 0, 90, 359, -90, 1, 1, 0x10));
+    }
+}
@@ -1,7 +1,11 @@
 package net.nullschool.grib2json;
 
+import com.lexicalscope.jewel.cli.CliFactory;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 /**
  * 2013-10-24<p/>
@@ -18,4 +22,96 @@ public class LauncherTest {
 //        String args = "--fc 2 --fs 103 --fv 80 --names c:/users/cambecc/desktop/gfs/gfs.t18z.pgrbf00.2p5deg.grib2";
 //        Launcher.main(args.split(" "));
     }
+
+    private static void checkModes(String... args) {
+        Options options = CliFactory.parseArguments(Options.class, args);
+        Launcher.checkModes(options, options.getFiles());
+    }
+
+    @Test
+    public void test_modes() {
+        checkModes("--pyramid", "tiles", "a.grib2");
+        checkModes("--watch", "a.grib2");
+        checkModes("--aggregate", "a.grib2", "b.grib2");
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_pyramid_with_watch() {
+        checkModes("--pyramid", "tiles", "--watch", "a.grib2");
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_pyramid_with_aggregate() {
+        checkModes("--pyramid", "tiles", "--aggregate", "a.grib2", "b.grib2");
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_pyramid_with_stdin() {
+        checkModes("--pyramid", "tiles", "-");
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_pyramid_with_mask() {
+        checkModes("--pyramid", "tiles", "--mask", "a.grib2");
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_pyramid_with_ndjson() {
+        checkModes("--pyramid", "tiles", "--ndjson", "a.grib2");
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_watch_with_several_files() {
+        checkModes("--watch", "a.grib2", "b.grib2");
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_watch_with_aggregate() {
+        checkModes("--watch", "--aggregate", "a.grib2");
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_stdin_with_several_files() {
+        checkModes("-", "a.grib2");
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_stdin_with_watch() {
+        checkModes("--watch", "-");
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_stdin_with_aggregate() {
+        checkModes("--aggregate", "-");
+    }
+
+    private static void checkOutputs(String[]... groups) {
+        List<Options> optionGroups = new ArrayList<>();
+        for (String[] args : groups) {
+            optionGroups.add(CliFactory.parseArguments(Options.class, args));
+        }
+        Launcher.checkOutputs(optionGroups, optionGroups.get(0).getFiles());
+    }
+
+    @Test
+    public void test_outputs() {
+        checkOutputs(new String[] {"--watch", "a.grib2"});
+        checkOutputs(new String[] {"--fp", "2", "a.grib2"}, new String[] {"--fp", "3", "a.grib2"});
+        checkOutputs(new String[] {"--fp", "2", "-"}, new String[] {"--fp", "3", "-o", "v.json", "-"});
+        checkOutputs(
+            new String[] {"--fp", "2", "-o", "u.json", "--watch", "a.grib2"},
+            new String[] {"--fp", "3", "-o", "v.json", "--watch", "a.grib2"});
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_watch_with_several_stdout_groups() {
+        checkOutputs(
+            new String[] {"--fp", "2", "--watch", "a.grib2"},
+            new String[] {"--fp", "3", "--watch", "a.grib2"});
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_stdin_with_several_stdout_groups() {
+        checkOutputs(new String[] {"--fp", "2", "-"}, new String[] {"--fp", "3", "-"});
+    }
 }
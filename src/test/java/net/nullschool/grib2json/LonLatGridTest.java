@@ -0,0 +1,40 @@
+package net.nullschool.grib2json;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * 2026-10-19<p/>
+ */
+public class LonLatGridTest {
+
+    @Test
+    public void test_parse() {
+        LonLatGrid grid = LonLatGrid.parse("0,90,359,-90,1,1");
+        assertEquals(360, grid.nx);
+        assertEquals(181, grid.ny);
+        assertEquals(360 * 181, grid.getNumberPoints());
+        assertEquals(359.0, grid.lo2(), 0);
+        assertEquals(-90.0, grid.la2(), 0);
+        assertEquals(-89.0, grid.lat(179), 0);
+    }
+
+    @Test
+    public void test_antimeridian() {
+        LonLatGrid grid = LonLatGrid.parse("170,10,-170,0,0.5,0.5");
+        assertEquals(41, grid.nx);
+        assertEquals(21, grid.ny);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_malformed() {
+        LonLatGrid.parse("0,90,359,-90,1");
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_south_to_north() {
+        LonLatGrid.parse("0,-90,359,90,1,1");
+    }
+}
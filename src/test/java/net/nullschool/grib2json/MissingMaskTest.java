@@ -0,0 +1,65 @@
+package net.nullschool.grib2json;
+
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * 2026-10-19<p/>
+ */
+public class MissingMaskTest {
+
+    private static final float NaN = Float.NaN;
+
+    @Test
+    public void test_runs() {
+        MissingMask mask = MissingMask.of(new float[] {1, 2, NaN, NaN, NaN, 3, NaN});
+        assertArrayEquals(new int[] {0, 2, 3, 1, 1}, mask.getRuns());
+        assertEquals(3, mask.getValidCount());
+
+        assertArrayEquals(new int[] {2}, MissingMask.of(new float[] {NaN, NaN}).getRuns());
+        assertArrayEquals(new int[] {0}, MissingMask.of(new float[0]).getRuns());
+    }
+
+    @Test
+    public void test_shared() {
+        StringWriter out = new StringWriter();
+        JsonGenerator jg = Json.createGenerator(out);
+        FloatArrayEncoder encoder = FloatArrayEncoder.of(false);
+        jg.writeStartArray();
+        for (float[] data : new float[][] {{NaN, 1, 2}, {NaN, 3, 4}, {5, NaN, 6}}) {
+            jg.writeStartObject();
+            MissingMask.write(jg, data, encoder, true);
+            jg.writeEnd();
+        }
+        jg.writeEnd().close();
+        assertEquals(
+            "[{\"mask\":{\"id\":0,\"runs\":[1,2]},\"data\":[1.0,2.0]}," +
+            "{\"mask\":{\"id\":0},\"data\":[3.0,4.0]}," +
+            "{\"mask\":{\"id\":1,\"runs\":[0,1,1,1]},\"data\":[5.0,6.0]}]",
+            out.toString());
+    }
+
+    @Test
+    public void test_unshared() {
+        StringWriter out = new StringWriter();
+        JsonGenerator jg = Json.createGenerator(out);
+        FloatArrayEncoder encoder = FloatArrayEncoder.of(false);
+        jg.writeStartArray();
+        for (float[] data : new float[][] {{NaN, 1, 2}, {NaN, 3, 4}}) {
+            jg.writeStartObject();
+            MissingMask.write(jg, data, encoder, false);
+            jg.writeEnd();
+        }
+        jg.writeEnd().close();
+        assertEquals(
+            "[{\"mask\":{\"runs\":[1,2]},\"data\":[1.0,2.0]}," +
+            "{\"mask\":{\"runs\":[1,2]},\"data\":[3.0,4.0]}]",
+            out.toString());
+    }
+}
@@ -0,0 +1,107 @@
+package net.nullschool.grib2json;
+
+import org.junit.Test;
+
+import javax.json.stream.JsonGenerationException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * 2026-10-19<p/>
+ */
+public class NdjsonGeneratorTest {
+
+    private static final class Output extends ByteArrayOutputStream {
+        boolean closed;
+
+        @Override public void close() throws IOException {
+            closed = true;
+        }
+
+        String text() {
+            try {
+                return toString("UTF-8");
+            }
+            catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    @Test
+    public void test_records_on_own_lines() {
+        Output out = new Output();
+        NdjsonGenerator jg = new NdjsonGenerator(out);
+        jg.writeStartArray();
+        jg.writeStartObject().write("a", 1).write("b", "x").writeEnd();
+        assertEquals("{\"a\":1,\"b\":\"x\"}\n", out.text());  // each record is written as soon as it ends
+        jg.writeStartObject().write("a", 2).writeEnd();
+        jg.writeEnd();
+        jg.close();
+        assertEquals("{\"a\":1,\"b\":\"x\"}\n{\"a\":2}\n", out.text());
+    }
+
+    @Test
+    public void test_nested() {
+        Output out = new Output();
+        NdjsonGenerator jg = new NdjsonGenerator(out);
+        jg.writeStartArray();
+        jg.writeStartObject();
+        jg.writeStartObject("header").write("n", 2).writeStartArray("list").write(1).writeStartArray().write(2);
+        jg.writeEnd().writeEnd().writeEnd();
+        jg.writeStartArray("data").writeStartObject().writeNull("x").writeEnd().write(3.5).writeEnd();
+        jg.writeEnd();
+        jg.writeStartObject().writeEnd();
+        jg.writeEnd();
+        jg.close();
+        assertEquals(
+            "{\"header\":{\"n\":2,\"list\":[1,[2]]},\"data\":[{\"x\":null},3.5]}\n{}\n",
+            out.text());
+    }
+
+    @Test
+    public void test_without_outermost_array() {
+        Output out = new Output();
+        NdjsonGenerator jg = new NdjsonGenerator(out);
+        jg.writeStartObject().write("a", true).writeEnd();
+        jg.close();
+        assertEquals("{\"a\":true}\n", out.text());
+    }
+
+    @Test
+    public void test_stream_closed_only_by_close() {
+        Output out = new Output();
+        NdjsonGenerator jg = new NdjsonGenerator(out);
+        jg.writeStartArray();
+        jg.writeStartObject().writeEnd();
+        jg.writeStartObject().writeEnd();
+        assertFalse(out.closed);
+        jg.writeEnd();
+        assertFalse(out.closed);
+        jg.close();
+        assertTrue(out.closed);
+    }
+
+    @Test
+    public void test_close_with_open_record() {
+        Output out = new Output();
+        NdjsonGenerator jg = new NdjsonGenerator(out);
+        jg.writeStartArray();
+        jg.writeStartObject().writeStartArray("data").write(1);
+        try {
+            jg.close();
+            fail();
+        }
+        catch (JsonGenerationException expected) {
+            assertFalse(out.closed);
+        }
+    }
+
+    @Test(expected=JsonGenerationException.class)
+    public void test_value_outside_record() {
+        new NdjsonGenerator(new Output()).writeStartArray().write(1);
+    }
+}
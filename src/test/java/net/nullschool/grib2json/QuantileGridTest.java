@@ -0,0 +1,38 @@
+package net.nullschool.grib2json;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * 2026-10-19<p/>
+ */
+public class QuantileGridTest {
+
+    @Test
+    public void test_exact_for_few_values() {
+        QuantileGrid grid = new QuantileGrid(0.5, 2);
+        grid.add(0, 3);
+        grid.add(0, 1);
+        grid.add(0, 2);
+        grid.add(0, Float.NaN);
+        assertEquals(2f, grid.get(0), 0);
+        assertTrue(Float.isNaN(grid.get(1)));
+    }
+
+    @Test
+    public void test_estimate() {
+        Random random = new Random(1);
+        QuantileGrid grid = new QuantileGrid(0.9, 1);
+        float[] values = new float[1000];
+        for (int i = 0; i < values.length; i++) {
+            grid.add(0, values[i] = (float)random.nextGaussian());
+        }
+        Arrays.sort(values);
+        assertEquals(values[899], grid.get(0), 0.05);
+    }
+}
@@ -0,0 +1,40 @@
+package net.nullschool.grib2json;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * 2026-10-19<p/>
+ */
+public class RecordStatsTest {
+
+    @Test
+    public void test_stats() {
+        RecordStats stats = new RecordStats(null);
+        for (float value : new float[] {1, 2, 3, 4, Float.NaN, 100}) {
+            stats.add(value);
+        }
+        assertEquals(5, stats.getCount());
+        assertEquals(1, stats.getNanCount());
+        assertEquals(1f, stats.getMin(), 0);
+        assertEquals(100f, stats.getMax(), 0);
+        assertEquals(22.0, stats.getMean(), 1e-9);
+        assertEquals(Math.sqrt(1522), stats.getStddev(), 1e-9);
+    }
+
+    @Test
+    public void test_empty() {
+        RecordStats stats = new RecordStats(null);
+        stats.add(Float.NaN);
+        assertEquals(0, stats.getCount());
+        assertTrue(Float.isNaN(stats.getMin()));
+        assertTrue(Double.isNaN(stats.getMean()));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_bad_histogram() {
+        new RecordStats("10,0,5");
+    }
+}
@@ -0,0 +1,141 @@
+package net.nullschool.grib2json;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * 2026-10-19<p/>
+ */
+public class RegridderTest {
+
+    @Rule public final TemporaryFolder temp = new TemporaryFolder();
+
+    /**
+     * A global 1º source grid of 3 rows at 1N, 0, and 1S, where each point's value is 1000 * row + column.
+     */
+    private static GridProjection globalSource() throws Exception {
+        return GridProjection.forGds(TestGds.lonLat(360, 3, 0, 1, 359, -1, 1, 1, 0));
+    }
+
+    private static float[] globalData() {
+        float[] data = new float[360 * 3];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = 1000 * (i / 360) + i % 360;
+        }
+        return data;
+    }
+
+    /**
+     * A regional 1º source grid spanning 0E to 10E and 10N to 0, with the same values as {@link #globalData}.
+     */
+    private static GridProjection regionalSource() throws Exception {
+        return GridProjection.forGds(TestGds.lonLat(11, 11, 0, 10, 10, 0, 1, 1, 0));
+    }
+
+    private static float[] regionalData() {
+        float[] data = new float[11 * 11];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = 1000 * (i / 11) + i % 11;
+        }
+        return data;
+    }
+
+    private static float[] regrid(GridProjection source, String target, float[] data) {
+        return Regridder.build("test", source, LonLatGrid.parse(target)).apply(data);
+    }
+
+    @Test
+    public void test_interpolation() throws Exception {
+        float[] result = regrid(globalSource(), "10.5,0.5,10.5,0.5,1,1", globalData());
+        assertEquals(1, result.length);
+        assertEquals(500 + 10.5, result[0], 1e-3);
+    }
+
+    @Test
+    public void test_wrap_across_last_column() throws Exception {
+        float[] result = regrid(globalSource(), "359.5,1,359.5,1,1,1", globalData());
+        assertEquals((359 + 0) / 2f, result[0], 1e-3);
+        result = regrid(globalSource(), "-0.25,0,-0.25,0,1,1", globalData());
+        assertEquals(1000 + 0.25f * 359 + 0.75f * 0, result[0], 1e-2);  // 359.75E
+    }
+
+    @Test
+    public void test_exact_last_row_and_column() throws Exception {
+        float[] result = regrid(regionalSource(), "10,0,10,0,1,1", regionalData());
+        assertEquals(10 * 1000 + 10, result[0], 0);
+        result = regrid(regionalSource(), "10,5,10,5,1,1", regionalData());
+        assertEquals(5 * 1000 + 10, result[0], 0);
+        result = regrid(regionalSource(), "3,0,3,0,1,1", regionalData());
+        assertEquals(10 * 1000 + 3, result[0], 0);
+    }
+
+    @Test
+    public void test_off_grid() throws Exception {
+        float[] result = regrid(regionalSource(), "9.5,0.5,11.5,-0.5,1,1", regionalData());
+        assertEquals(6, result.length);
+        assertFalse(Float.isNaN(result[0]));  // 9.5E 0.5N lies within the grid
+        assertTrue(Float.isNaN(result[1]));   // 10.5E lies east of the last column
+        assertTrue(Float.isNaN(result[2]));
+        for (int i = 3; i < 6; i++) {
+            assertTrue(Float.isNaN(result[i]));  // 0.5S lies south of the last row
+        }
+    }
+
+    @Test
+    public void test_nan_propagation() throws Exception {
+        float[] data = regionalData();
+        data[5 * 11 + 5] = Float.NaN;  // 5E 5N
+        float[] result = regrid(regionalSource(), "4.5,5.5,6.5,5.5,1,1", data);
+        assertTrue(Float.isNaN(result[0]));
+        assertTrue(Float.isNaN(result[1]));
+        assertFalse(Float.isNaN(result[2]));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_wrong_source_size() throws Exception {
+        regrid(regionalSource(), "0,10,10,0,1,1", new float[10]);
+    }
+
+    @Test
+    public void test_cache_round_trip() throws Exception {
+        File dir = temp.newFolder();
+        GridProjection source = regionalSource();
+        LonLatGrid target = LonLatGrid.parse("0.25,9.75,9.75,0.25,0.5,0.5");
+        String key = source.key() + "->" + target.key();
+        Regridder built = Regridder.build(key, source, target);
+        File file = Regridder.cacheFile(dir, key);
+        built.write(file);
+
+        Regridder read = Regridder.read(file, key);
+        assertNotNull(read);
+        assertArrayEquals(built.apply(regionalData()), read.apply(regionalData()), 0);
+
+        assertNull(Regridder.read(file, key + "x"));  // a different key, as if the file names collided
+    }
+
+    @Test
+    public void test_truncated_cache_file() throws Exception {
+        File dir = temp.newFolder();
+        GridProjection source = regionalSource();
+        LonLatGrid target = LonLatGrid.parse("0.25,9.75,9.75,0.25,0.5,0.5");
+        String key = source.key() + "->" + target.key();
+        File file = Regridder.cacheFile(dir, key);
+        Regridder.build(key, source, target).write(file);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() / 2);
+        }
+        assertNull(Regridder.read(file, key));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(6);
+        }
+        assertNull(Regridder.read(file, key));
+    }
+}
@@ -0,0 +1,134 @@
+package net.nullschool.grib2json;
+
+import ucar.grib.grib2.Grib2GDSVariables;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * Builds GRIB2 grid definition sections (section 3) for tests.
+ */
+final class TestGds {
+
+    private TestGds() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Put a GRIB2 signed integer, which has its sign in the high bit.
+     */
+    private static void putSigned(ByteBuffer buf, int value) {
+        buf.putInt(value < 0 ? -value | 0x80000000 : value);
+    }
+
+    private static void putDegrees(ByteBuffer buf, double degrees) {
+        putSigned(buf, (int)Math.round(degrees * 1e6));
+    }
+
+    private static ByteBuffer template0(int length, int template, int nx, int ny, double lo1, double la1, double lo2,
+                                        double la2, double dx, double dy, int scanMode) {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        buf.putInt(length).put((byte)3).put((byte)0).putInt(nx * ny).put((byte)0).put((byte)0);
+        buf.putShort((short)template);
+        buf.put((byte)6);                                  // shape of the earth: sphere of radius 6371229 m
+        buf.put((byte)0).putInt(0).put((byte)0).putInt(0).put((byte)0).putInt(0);
+        buf.putInt(nx).putInt(ny).putInt(0).putInt(-1);    // basic angle 0: units of 10^-6 degrees
+        putDegrees(buf, la1);
+        putDegrees(buf, lo1);
+        buf.put((byte)48);
+        putDegrees(buf, la2);
+        putDegrees(buf, lo2);
+        putDegrees(buf, dx);
+        putDegrees(buf, dy);
+        buf.put((byte)scanMode);
+        return buf;
+    }
+
+    /**
+     * Returns a lon/lat grid (template 3.0).
+     */
+    static Grib2GDSVariables lonLat(int nx, int ny, double lo1, double la1, double lo2, double la2, double dx,
+                                    double dy, int scanMode) throws IOException {
+        return new Grib2GDSVariables(template0(72, 0, nx, ny, lo1, la1, lo2, la2, dx, dy, scanMode).array());
+    }
+
+    /**
+     * Returns a rotated lon/lat grid (template 3.1), whose corners are given in rotated coordinates.
+     */
+    static Grib2GDSVariables rotated(int nx, int ny, double lo1, double la1, double lo2, double la2, double dx,
+                                     double dy, int scanMode, double spLat, double spLon, float angle)
+        throws IOException {
+
+        ByteBuffer buf = template0(84, 1, nx, ny, lo1, la1, lo2, la2, dx, dy, scanMode);
+        putDegrees(buf, spLat);
+        putDegrees(buf, spLon);
+        buf.putFloat(angle);
+        return new Grib2GDSVariables(buf.array());
+    }
+
+    /**
+     * Returns the common part of a projected grid: section header, shape of the earth, point counts, and first
+     * grid point.
+     */
+    private static ByteBuffer projected(int length, int template, int nx, int ny, double la1, double lo1) {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        buf.putInt(length).put((byte)3).put((byte)0).putInt(nx * ny).put((byte)0).put((byte)0);
+        buf.putShort((short)template);
+        buf.put((byte)6);                                  // shape of the earth: sphere of radius 6371229 m
+        buf.put((byte)0).putInt(0).put((byte)0).putInt(0).put((byte)0).putInt(0);
+        buf.putInt(nx).putInt(ny);
+        putDegrees(buf, la1);
+        putDegrees(buf, lo1);
+        buf.put((byte)48);
+        return buf;
+    }
+
+    /**
+     * Returns a Mercator grid (template 3.10) with increments in meters, true at latitude laD.
+     */
+    static Grib2GDSVariables mercator(int nx, int ny, double la1, double lo1, double laD, double la2, double lo2,
+                                      int scanMode, double dx, double dy) throws IOException {
+        ByteBuffer buf = projected(72, 10, nx, ny, la1, lo1);
+        putDegrees(buf, laD);
+        putDegrees(buf, la2);
+        putDegrees(buf, lo2);
+        buf.put((byte)scanMode).putInt(0);
+        buf.putInt((int)Math.round(dx * 1000)).putInt((int)Math.round(dy * 1000));
+        return new Grib2GDSVariables(buf.array());
+    }
+
+    /**
+     * Returns a polar stereographic grid (template 3.20) with increments in meters, true at latitude laD.
+     */
+    static Grib2GDSVariables polarStereographic(int nx, int ny, double la1, double lo1, double laD, double loV,
+                                                double dx, double dy, int projectionFlag, int scanMode)
+        throws IOException {
+
+        ByteBuffer buf = projected(65, 20, nx, ny, la1, lo1);
+        putDegrees(buf, laD);
+        putDegrees(buf, loV);
+        buf.putInt((int)Math.round(dx * 1000)).putInt((int)Math.round(dy * 1000));
+        buf.put((byte)projectionFlag).put((byte)scanMode);
+        return new Grib2GDSVariables(buf.array());
+    }
+
+    /**
+     * Returns a Lambert conformal grid (template 3.30) with increments in meters.
+     */
+    static Grib2GDSVariables lambert(int nx, int ny, double la1, double lo1, double laD, double loV, double dx,
+                                     double dy, int scanMode, double latin1, double latin2) throws IOException {
+        ByteBuffer buf = projected(81, 30, nx, ny, la1, lo1);
+        putDegrees(buf, laD);
+        putDegrees(buf, loV);
+        buf.putInt((int)Math.round(dx * 1000)).putInt((int)Math.round(dy * 1000));
+        buf.put((byte)0).put((byte)scanMode);
+        putDegrees(buf, latin1);
+        putDegrees(buf, latin2);
+        putDegrees(buf, -90);
+        putDegrees(buf, 0);
+        return new Grib2GDSVariables(buf.array());
+    }
+}
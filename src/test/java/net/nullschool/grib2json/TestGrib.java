@@ -0,0 +1,66 @@
+package net.nullschool.grib2json;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+
+/**
+ * 2026-10-19<p/>
+ *
+ * Builds GRIB2 messages from hand-made sections, for tests of message framing. The sections need not be
+ * decodable.
+ */
+final class TestGrib {
+
+    private TestGrib() {
+        throw new AssertionError();
+    }
+
+    static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.write(part, 0, part.length);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns a section having the specified number and body, preceded by its length.
+     */
+    static byte[] section(int number, int... body) {
+        ByteBuffer buf = ByteBuffer.allocate(5 + body.length);
+        buf.putInt(5 + body.length).put((byte)number);
+        for (int b : body) {
+            buf.put((byte)b);
+        }
+        return buf.array();
+    }
+
+    /**
+     * Returns a GRIB2 message of the specified discipline: an indicator section, the sections, and "7777".
+     */
+    static byte[] message(int discipline, byte[]... sections) {
+        byte[] body = concat(sections);
+        ByteBuffer buf = ByteBuffer.allocate(16 + body.length + 4);
+        buf.put("GRIB".getBytes()).put((byte)0).put((byte)0).put((byte)discipline).put((byte)2);
+        buf.putLong(buf.capacity());
+        buf.put(body).put("7777".getBytes());
+        return buf.array();
+    }
+
+    /**
+     * Returns a GRIB2 message having a body of the specified number of filler bytes.
+     */
+    static byte[] message(int bodyLength) {
+        return message(0, new byte[bodyLength]);
+    }
+
+    /**
+     * Returns the command line arguments followed by more arguments.
+     */
+    static String[] concatArgs(String[] args, String... more) {
+        String[] result = java.util.Arrays.copyOf(args, args.length + more.length);
+        System.arraycopy(more, 0, result, args.length, more.length);
+        return result;
+    }
+}
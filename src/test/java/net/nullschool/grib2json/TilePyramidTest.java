@@ -0,0 +1,111 @@
+package net.nullschool.grib2json;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+import static net.nullschool.grib2json.TilePyramid.Reducer.*;
+import static org.junit.Assert.*;
+
+
+/**
+ * 2026-10-19<p/>
+ */
+public class TilePyramidTest {
+
+    private static final float NaN = Float.NaN;
+
+    @Rule public final TemporaryFolder temp = new TemporaryFolder();
+
+    /**
+     * A 5 x 3 grid, so the last column and row of each level are partial blocks.
+     */
+    private static float[] data() {
+        return new float[] {
+             1,   2,  3,  4,  5,
+             6, NaN,  8,  9, 10,
+            11,  12, 13, 14, 15,
+        };
+    }
+
+    @Test
+    public void test_mean() {
+        TilePyramid pyramid = TilePyramid.build(data(), 5, 3, 2, MEAN);
+        assertEquals(3, pyramid.getLevelCount());
+        assertArrayEquals(data(), pyramid.getLevel(0), 0);
+        assertArrayEquals(new float[] {3, 6, 7.5f, 11.5f, 13.5f, 15}, pyramid.getLevel(1), 1e-6f);
+        assertArrayEquals(new float[] {83 / 11f, 10}, pyramid.getLevel(2), 1e-5f);
+    }
+
+    @Test
+    public void test_max() {
+        TilePyramid pyramid = TilePyramid.build(data(), 5, 3, 2, MAX);
+        assertArrayEquals(new float[] {6, 9, 10, 12, 14, 15}, pyramid.getLevel(1), 0);
+        assertArrayEquals(new float[] {14, 15}, pyramid.getLevel(2), 0);
+    }
+
+    @Test
+    public void test_nearest() {
+        TilePyramid pyramid = TilePyramid.build(data(), 5, 3, 2, NEAREST);
+        assertArrayEquals(new float[] {1, 3, 5, 11, 13, 15}, pyramid.getLevel(1), 0);
+        assertArrayEquals(new float[] {1, 5}, pyramid.getLevel(2), 0);
+    }
+
+    @Test
+    public void test_nan_blocks() {
+        float[] data = {NaN, 1, NaN, NaN, 2, 3, NaN, NaN};  // 4 x 2: the second block is entirely NaN
+        assertArrayEquals(new float[] {2, NaN}, TilePyramid.build(data, 4, 2, 1, MEAN).getLevel(1), 0);
+        assertArrayEquals(new float[] {3, NaN}, TilePyramid.build(data, 4, 2, 1, MAX).getLevel(1), 0);
+        assertArrayEquals(new float[] {NaN, NaN}, TilePyramid.build(data, 4, 2, 1, NEAREST).getLevel(1), 0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_wrong_size() {
+        TilePyramid.build(data(), 4, 3, 1, MEAN);
+    }
+
+    private static String read(File file) throws Exception {
+        return new String(Files.readAllBytes(file.toPath()), Charset.forName("UTF-8"));
+    }
+
+    @Test
+    public void test_write() throws Exception {
+        File dir = temp.newFolder();
+        StringWriter manifest = new StringWriter();
+        JsonGenerator jg = Json.createGenerator(manifest);
+        jg.writeStartObject();
+        TilePyramid.build(data(), 5, 3, 1, MEAN).write(dir, "r", 2, jg);
+        jg.writeEnd().close();
+
+        assertEquals(
+            "{\"tiles\":\"r/{level}/{ty}_{tx}.json\",\"levels\":[" +
+            "{\"level\":0,\"factor\":1,\"nx\":5,\"ny\":3,\"tileSize\":2,\"tilesX\":3,\"tilesY\":2}," +
+            "{\"level\":1,\"factor\":2,\"nx\":3,\"ny\":2,\"tileSize\":2,\"tilesX\":2,\"tilesY\":1}]}",
+            manifest.toString());
+
+        assertEquals(6, new File(dir, "r/0").list().length);
+        assertEquals(2, new File(dir, "r/1").list().length);
+        assertEquals(
+            "{\"x\":0,\"y\":0,\"nx\":2,\"ny\":2,\"data\":[1.0,2.0,6.0,\"NaN\"]}",
+            read(new File(dir, "r/0/0_0.json")));
+        assertEquals(  // partial in both directions
+            "{\"x\":4,\"y\":2,\"nx\":1,\"ny\":1,\"data\":[15.0]}",
+            read(new File(dir, "r/0/1_2.json")));
+        assertEquals(  // partial in x
+            "{\"x\":2,\"y\":0,\"nx\":1,\"ny\":2,\"data\":[7.5,15.0]}",
+            read(new File(dir, "r/1/0_1.json")));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void test_bad_tile_size() throws Exception {
+        JsonGenerator jg = Json.createGenerator(new StringWriter());
+        TilePyramid.build(data(), 5, 3, 1, MEAN).write(temp.newFolder(), "r", 0, jg);
+    }
+}